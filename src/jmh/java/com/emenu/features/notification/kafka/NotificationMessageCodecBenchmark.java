@@ -0,0 +1,102 @@
+package com.emenu.features.notification.kafka;
+
+import com.emenu.config.ApplicationConfig;
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
+import com.emenu.enums.notification.NotificationType;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of a typical Kafka notification message: JSON through the application's
+ * ObjectMapper, which the topics carried before the binary format, against the binary codec.
+ * The encode benchmarks also report the encoded size in bytes per message as the
+ * {@code jsonBytes} and {@code binaryBytes} auxiliary counters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationMessageCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private NotificationMessageCodec codec;
+    private NotificationMessage message;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ApplicationConfig().objectMapper();
+        codec = new NotificationMessageCodec(objectMapper);
+        message = NotificationMessage.builder()
+            .logId(UUID.randomUUID())
+            .batchId(UUID.randomUUID().toString())
+            .apiKeyValue("nk_live_3f9c2a7b1e8d4c6a9b0f2e1d7c5a3b8e")
+            .systemName("emenu-orders")
+            .channel(NotificationChannel.TELEGRAM)
+            .type(NotificationType.INFO)
+            .priority(NotificationPriority.NORMAL)
+            .recipient("-1001234567890")
+            .subject("Order #10234 confirmed")
+            .message("Your order #10234 has been confirmed and will be ready in about 20 minutes.\n"
+                + "Table 12 - 3 items - total $18.50")
+            .retryCount(0)
+            .senderProfileId(UUID.randomUUID())
+            .senderProfileVersion(3)
+            .build();
+        json = objectMapper.writeValueAsBytes(message);
+        binary = codec.encode(message);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(EncodedSize size) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(message);
+        size.jsonBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public NotificationMessage jsonDecode() throws IOException {
+        return objectMapper.readValue(json, NotificationMessage.class);
+    }
+
+    @Benchmark
+    public NotificationMessage jsonRoundTrip() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(message), NotificationMessage.class);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(EncodedSize size) {
+        byte[] encoded = codec.encode(message);
+        size.binaryBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public NotificationMessage binaryDecode() throws IOException {
+        return codec.decode(binary);
+    }
+
+    @Benchmark
+    public NotificationMessage binaryRoundTrip() throws IOException {
+        return codec.decode(codec.encode(message));
+    }
+
+    /**
+     * Size of the last encoded message. EVENTS counters are reported as-is, not per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long jsonBytes;
+        public long binaryBytes;
+    }
+}
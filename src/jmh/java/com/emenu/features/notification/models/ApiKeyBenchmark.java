@@ -0,0 +1,57 @@
+package com.emenu.features.notification.models;
+
+import com.emenu.features.notification.dto.ApiKeySnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API key checks on the send path, on the entity and on the cached snapshot.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiKeyBenchmark {
+
+    private ApiKey apiKey;
+    private ApiKeySnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        apiKey = new ApiKey();
+        apiKey.setApiKeyValue("nk_live_3f9c2a7b1e8d4c6a9b0f2e1d7c5a3b8e");
+        apiKey.setSystemName("emenu-orders");
+        apiKey.setNeverExpires(false);
+        apiKey.setStartDate(LocalDate.now().minusMonths(1));
+        apiKey.setEndDate(LocalDate.now().plusMonths(11));
+        apiKey.setMonthlyLimit(100_000);
+        apiKey.setCurrentUsage(42_000);
+        snapshot = ApiKeySnapshot.from(apiKey);
+    }
+
+    @Benchmark
+    public boolean isExpired() {
+        return apiKey.isExpired();
+    }
+
+    @Benchmark
+    public boolean hasReachedLimit() {
+        return apiKey.hasReachedLimit();
+    }
+
+    @Benchmark
+    public void entityChecks(Blackhole blackhole) {
+        blackhole.consume(apiKey.isExpired());
+        blackhole.consume(apiKey.hasReachedLimit());
+    }
+
+    @Benchmark
+    public boolean snapshotIsExpired() {
+        return snapshot.isExpired();
+    }
+}
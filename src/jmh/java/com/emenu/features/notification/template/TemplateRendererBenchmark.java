@@ -0,0 +1,61 @@
+package com.emenu.features.notification.template;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationType;
+import com.emenu.features.notification.dto.NotificationMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the built-in email and Telegram layouts, which runs once per delivered message.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateRendererBenchmark {
+
+    @Param({"120", "4000"})
+    private int messageLength;
+
+    private TemplateRenderer renderer;
+    private NotificationMessage withSubject;
+    private NotificationMessage withoutSubject;
+
+    @Setup
+    public void setup() {
+        renderer = new TemplateRenderer();
+        String body = "Line with <b>markup</b> & \"quotes\"\n".repeat(Math.max(1, messageLength / 34));
+        withSubject = NotificationMessage.builder()
+            .channel(NotificationChannel.EMAIL)
+            .type(NotificationType.ALERT)
+            .systemName("emenu-orders")
+            .subject("Kitchen printer offline")
+            .message(body)
+            .build();
+        withoutSubject = NotificationMessage.builder()
+            .channel(NotificationChannel.TELEGRAM)
+            .type(NotificationType.INFO)
+            .systemName("emenu-orders")
+            .message(body)
+            .build();
+    }
+
+    @Benchmark
+    public String renderEmail() {
+        return renderer.renderEmail(withSubject);
+    }
+
+    @Benchmark
+    public String renderTelegram() {
+        return renderer.renderTelegram(withoutSubject);
+    }
+
+    @Benchmark
+    public String renderTelegramWithSubject() {
+        return renderer.renderTelegram(withSubject);
+    }
+}
@@ -0,0 +1,54 @@
+package com.emenu.features.setting.mapper;
+
+import com.emenu.features.setting.dto.response.ImageResponse;
+import com.emenu.features.setting.models.ImageEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base64 decoding of stored images when they are served, with and without a data URL prefix.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageMapperBenchmark {
+
+    @Param({"16384", "1048576"})
+    private int imageBytes;
+
+    private ImageMapper imageMapper;
+    private ImageEntity raw;
+    private ImageEntity dataUrl;
+
+    @Setup
+    public void setup() {
+        imageMapper = ImageMapper.INSTANCE;
+        byte[] image = new byte[imageBytes];
+        new Random(42).nextBytes(image);
+        String base64 = Base64.getEncoder().encodeToString(image);
+
+        raw = new ImageEntity();
+        raw.setType("image/png");
+        raw.setData(base64);
+
+        dataUrl = new ImageEntity();
+        dataUrl.setType("image/png");
+        dataUrl.setData("data:image/png;base64," + base64);
+    }
+
+    @Benchmark
+    public ImageResponse toResponse() {
+        return imageMapper.toResponse(raw);
+    }
+
+    @Benchmark
+    public ImageResponse toResponseDataUrl() {
+        return imageMapper.toResponse(dataUrl);
+    }
+}
@@ -0,0 +1,69 @@
+package com.emenu.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done by the JWT filter on every authenticated request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JWTGeneratorBenchmark {
+
+    private static final String SECRET =
+        "da2bd42bef8f9f957d647ed13571dadd5b59c7055fb723eacdb05154878da17d"
+        + "77d3180385fc232cab38bded0fc7dbda0d439cc275e91164ade266d64d50633bc7";
+
+    private JWTGenerator jwtGenerator;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtGenerator = new JWTGenerator();
+        setField("jwtSecret", SECRET);
+        setField("jwtExpiration", TimeUnit.HOURS.toMillis(24));
+        setField("claimsCacheMaxSize", 10_000L);
+        setField("claimsCacheMaxTtlMinutes", 15L);
+        jwtGenerator.init();
+        token = jwtGenerator.generateAccessToken(new UsernamePasswordAuthenticationToken(
+            "owner@emenu.local", null,
+            List.of(new SimpleGrantedAuthority("ROLE_PLATFORM_OWNER"), new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN"))));
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtGenerator.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtGenerator.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromJWT() {
+        return jwtGenerator.getUsernameFromJWT(token);
+    }
+
+    @Benchmark
+    public String validateThenGetUsername() {
+        return jwtGenerator.validateToken(token) ? jwtGenerator.getUsernameFromJWT(token) : null;
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JWTGenerator.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtGenerator, value);
+    }
+}
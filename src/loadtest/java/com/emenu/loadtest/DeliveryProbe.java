@@ -0,0 +1,64 @@
+package com.emenu.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures delivery latency from the marker the driver embeds in every notification. The
+ * marker carries the {@link System#nanoTime()} at which the request was sent; the fake
+ * provider servers run in the same JVM and report each message they accept.
+ */
+public class DeliveryProbe {
+
+    private static final Pattern MARKER = Pattern.compile("\\[lt:(\\d+)]");
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong unmarked = new AtomicLong();
+    private volatile long measureFrom = Long.MIN_VALUE;
+    private volatile long lastDeliveryNanos;
+
+    public static String marker(long sentNanos) {
+        return "[lt:" + sentNanos + "]";
+    }
+
+    /**
+     * Only messages sent at or after the given time are counted, which leaves the warm-up out.
+     */
+    public void measureFrom(long nanos) {
+        this.measureFrom = nanos;
+    }
+
+    public void delivered(CharSequence content) {
+        long now = System.nanoTime();
+        Matcher matcher = MARKER.matcher(content);
+        if (!matcher.find()) {
+            unmarked.incrementAndGet();
+            return;
+        }
+        long sentNanos = Long.parseLong(matcher.group(1));
+        if (sentNanos < measureFrom) {
+            return;
+        }
+        delivered.incrementAndGet();
+        latency.record(now - sentNanos);
+        lastDeliveryNanos = now;
+    }
+
+    public long delivered() {
+        return delivered.get();
+    }
+
+    public long unmarked() {
+        return unmarked.get();
+    }
+
+    public long lastDeliveryNanos() {
+        return lastDeliveryNanos;
+    }
+
+    public LatencyRecorder.Summary latency() {
+        return latency.summarize();
+    }
+}
@@ -0,0 +1,127 @@
+package com.emenu.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process SMTP sink. Speaks enough of the protocol for pooled Jakarta Mail transports:
+ * EHLO with AUTH, any credentials accepted, MAIL/RCPT/DATA, RSET and NOOP for connection
+ * validation, and QUIT. Every accepted message is reported to the probe after a fixed latency.
+ */
+@Slf4j
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final DeliveryProbe probe;
+    private final long latencyMs;
+
+    public FakeSmtpServer(DeliveryProbe probe, long latencyMs) throws IOException {
+        this.probe = probe;
+        this.latencyMs = latencyMs;
+        this.serverSocket = new ServerSocket(0, 256, InetAddress.getLoopbackAddress());
+        executor.execute(this::acceptLoop);
+        log.info("Fake SMTP server listening on port {}", port());
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Fake SMTP accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            reply(out, "220 localhost fake SMTP ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-AUTH PLAIN LOGIN\r\n250-8BITMIME\r\n250 SIZE 52428800");
+                    case "HELO" -> reply(out, "250 localhost");
+                    case "AUTH" -> authenticate(line, in, out);
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> receiveData(in, out);
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Fake SMTP connection closed: {}", e.getMessage());
+        }
+    }
+
+    private static void authenticate(String line, BufferedReader in, BufferedWriter out) throws IOException {
+        String[] parts = line.split(" ");
+        if (parts.length >= 2 && "LOGIN".equalsIgnoreCase(parts[1])) {
+            if (parts.length < 3) {
+                reply(out, "334 VXNlcm5hbWU6");
+                in.readLine();
+            }
+            reply(out, "334 UGFzc3dvcmQ6");
+            in.readLine();
+        } else if (parts.length == 2) {
+            // AUTH PLAIN without an initial response
+            reply(out, "334 ");
+            in.readLine();
+        }
+        reply(out, "235 Authentication successful");
+    }
+
+    private void receiveData(BufferedReader in, BufferedWriter out) throws IOException {
+        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+        StringBuilder content = new StringBuilder(1024);
+        String line;
+        while ((line = in.readLine()) != null && !".".equals(line)) {
+            content.append(line).append('\n');
+        }
+        FakeTelegramServer.sleep(latencyMs);
+        probe.delivered(content);
+        reply(out, "250 OK queued");
+    }
+
+    private static void reply(BufferedWriter out, String response) throws IOException {
+        out.write(response);
+        out.write("\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Failed to close fake SMTP server: {}", e.getMessage());
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,107 @@
+package com.emenu.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Telegram Bot API. Answers {@code POST /bot<token>/sendMessage}
+ * after a fixed latency and rejects a configurable share of requests with 429 and a
+ * retry_after of one second, like the real API does under flood control.
+ */
+@Slf4j
+public class FakeTelegramServer implements AutoCloseable {
+
+    private static final byte[] TOO_MANY_REQUESTS = ("{\"ok\":false,\"error_code\":429,"
+        + "\"description\":\"Too Many Requests: retry after 1\",\"parameters\":{\"retry_after\":1}}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final DeliveryProbe probe;
+    private final long latencyMs;
+    private final double tooManyRequestsRate;
+    private final AtomicLong messageIds = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public FakeTelegramServer(DeliveryProbe probe, long latencyMs, double tooManyRequestsRate, int threads)
+            throws IOException {
+        this.probe = probe;
+        this.latencyMs = latencyMs;
+        this.tooManyRequestsRate = tooManyRequestsRate;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        log.info("Fake Telegram API listening on {}", apiUrl());
+    }
+
+    /**
+     * Value for notification.telegram.api-url; the sender appends the token and method.
+     */
+    public String apiUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/bot";
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith("/sendMessage")) {
+                respond(exchange, 404, "{\"ok\":false,\"error_code\":404,\"description\":\"Not Found\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            sleep(latencyMs);
+            if (tooManyRequestsRate > 0 && ThreadLocalRandom.current().nextDouble() < tooManyRequestsRate) {
+                rejected.incrementAndGet();
+                respond(exchange, 429, TOO_MANY_REQUESTS);
+                return;
+            }
+
+            probe.delivered(body);
+            respond(exchange, 200, ("{\"ok\":true,\"result\":{\"message_id\":" + messageIds.incrementAndGet() + "}}")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
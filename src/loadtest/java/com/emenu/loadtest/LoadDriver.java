@@ -0,0 +1,175 @@
+package com.emenu.loadtest;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationType;
+import com.emenu.features.notification.dto.request.EmailConfig;
+import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.dto.request.TelegramConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends requests to {@code /api/v1/public/notifications/send} at a fixed rate, then waits for
+ * the fake providers to receive every message that was accepted during the measured window.
+ */
+@Slf4j
+public class LoadDriver {
+
+    private static final long TICK_MS = 10;
+
+    private final LoadTestOptions options;
+    private final URI sendUri;
+    private final String apiKey;
+    private final int smtpPort;
+    private final ObjectMapper objectMapper;
+    private final DeliveryProbe probe;
+    private final StatementCounter statements;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newFixedThreadPool(8))
+        .build();
+
+    private final LatencyRecorder requestLatency = new LatencyRecorder();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong expectedDeliveries = new AtomicLong();
+    private volatile boolean measuring;
+
+    public LoadDriver(LoadTestOptions options, int serverPort, String apiKey, int smtpPort,
+                      ObjectMapper objectMapper, DeliveryProbe probe, StatementCounter statements) {
+        this.options = options;
+        this.sendUri = URI.create("http://127.0.0.1:" + serverPort + "/api/v1/public/notifications/send");
+        this.apiKey = apiKey;
+        this.smtpPort = smtpPort;
+        this.objectMapper = objectMapper;
+        this.probe = probe;
+        this.statements = statements;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        double perTick = options.rps() * TICK_MS / 1000.0;
+        double[] carry = {0};
+        ticker.scheduleAtFixedRate(() -> {
+            carry[0] += perTick;
+            int requests = (int) carry[0];
+            carry[0] -= requests;
+            for (int i = 0; i < requests; i++) {
+                sendOne();
+            }
+        }, 0, TICK_MS, TimeUnit.MILLISECONDS);
+
+        if (options.warmupSeconds() > 0) {
+            log.info("Warming up for {}s at {} rps", options.warmupSeconds(), options.rps());
+            Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds()));
+        }
+
+        long start = System.nanoTime();
+        probe.measureFrom(start);
+        statements.reset();
+        measuring = true;
+        log.info("Measuring for {}s at {} rps", options.durationSeconds(), options.rps());
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.durationSeconds()));
+        measuring = false;
+        ticker.shutdownNow();
+        long sendEnd = System.nanoTime();
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds());
+        while (probe.delivered() < expectedDeliveries.get() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+
+        long end = Math.max(sendEnd, probe.lastDeliveryNanos());
+        return new LoadReport(options, sent.get(), accepted.get(), rejected.get(), expectedDeliveries.get(),
+            probe.delivered(), sendEnd - start, end - start, requestLatency.summarize(), probe.latency(),
+            statements.executions(), statements.batchedRows(), statements.commits());
+    }
+
+    private void sendOne() {
+        boolean counted = measuring;
+        long sentNanos = System.nanoTime();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(buildRequest(sentNanos));
+        } catch (Exception e) {
+            log.error("Failed to build load test request: {}", e.getMessage());
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(sendUri)
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .header("X-API-Key", apiKey)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+
+        if (counted) {
+            sent.incrementAndGet();
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                if (!counted) {
+                    return;
+                }
+                requestLatency.record(System.nanoTime() - sentNanos);
+                if (error == null && response.statusCode() == 200) {
+                    accepted.incrementAndGet();
+                    expectedDeliveries.addAndGet(options.recipients());
+                } else {
+                    rejected.incrementAndGet();
+                }
+            });
+    }
+
+    private SendNotificationRequest buildRequest(long sentNanos) {
+        NotificationChannel channel = options.mixed()
+            ? (ThreadLocalRandom.current().nextBoolean() ? NotificationChannel.TELEGRAM : NotificationChannel.EMAIL)
+            : options.channel();
+        String marker = DeliveryProbe.marker(sentNanos);
+
+        SendNotificationRequest request = new SendNotificationRequest();
+        request.setChannel(channel);
+        request.setType(NotificationType.INFO);
+        request.setSubject("Load test " + marker);
+        request.setMessage("Load test notification " + marker);
+
+        List<String> recipients = new ArrayList<>(options.recipients());
+        for (int i = 0; i < options.recipients(); i++) {
+            int chat = ThreadLocalRandom.current().nextInt(options.chats());
+            recipients.add(channel == NotificationChannel.TELEGRAM ? String.valueOf(100_000 + chat) : "user" + chat + "@loadtest.local");
+        }
+
+        if (channel == NotificationChannel.TELEGRAM) {
+            TelegramConfig telegram = new TelegramConfig();
+            telegram.setBotToken("123456:loadtest");
+            telegram.setChatIds(recipients);
+            request.setTelegram(telegram);
+        } else {
+            EmailConfig email = new EmailConfig();
+            email.setFrom("loadtest@loadtest.local");
+            email.setTo(recipients);
+            email.setSmtpHost("127.0.0.1");
+            email.setSmtpPort(smtpPort);
+            email.setSmtpUsername("loadtest");
+            email.setSmtpPassword("loadtest");
+            email.setUseSSL(false);
+            email.setUseTLS(false);
+            request.setEmail(email);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,45 @@
+package com.emenu.loadtest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one load test run.
+ */
+public record LoadReport(
+        LoadTestOptions options,
+        long requestsSent,
+        long requestsAccepted,
+        long requestsRejected,
+        long expectedDeliveries,
+        long deliveries,
+        long sendNanos,
+        long totalNanos,
+        LatencyRecorder.Summary requestLatency,
+        LatencyRecorder.Summary deliveryLatency,
+        long statements,
+        long batchedRows,
+        long commits) {
+
+    public String format() {
+        double sendSeconds = seconds(sendNanos);
+        double totalSeconds = seconds(totalNanos);
+        return String.join("\n",
+            "",
+            "===== LOAD TEST REPORT =====",
+            String.format("Target:           %d rps x %d recipients, channel %s, %ds",
+                options.rps(), options.recipients(), options.mixed() ? "MIXED" : options.channel(), options.durationSeconds()),
+            String.format("Requests:         sent=%d accepted=%d rejected=%d (%.1f req/s)",
+                requestsSent, requestsAccepted, requestsRejected, requestsAccepted / sendSeconds),
+            String.format("Request latency:  %s", requestLatency),
+            String.format("Deliveries:       %d of %d (%.1f msg/s over %.1fs)",
+                deliveries, expectedDeliveries, deliveries / totalSeconds, totalSeconds),
+            String.format("Delivery latency: %s", deliveryLatency),
+            String.format("DB statements:    %d executions, %d batched rows, %d commits (%.2f executions per delivery)",
+                statements, batchedRows, commits, deliveries > 0 ? statements / (double) deliveries : 0.0),
+            "");
+    }
+
+    private static double seconds(long nanos) {
+        return Math.max(1e-9, nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.emenu.loadtest;
+
+import com.emenu.EMenuApplication;
+import com.emenu.features.notification.models.ApiKey;
+import com.emenu.features.notification.repository.ApiKeyRepository;
+import com.emenu.features.notification.repository.NotificationLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs the whole service offline against an embedded Postgres, an embedded Kafka broker and
+ * fake Telegram and SMTP servers, drives it at a fixed rate and prints a report.
+ *
+ * <p>Harness options are listed in {@link LoadTestOptions}; any {@code --spring.*},
+ * {@code --notification.*} or {@code --logging.*} argument is passed on to the application
+ * and overrides the harness defaults.
+ */
+@Slf4j
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        DeliveryProbe probe = new DeliveryProbe();
+        StatementCounter statements = new StatementCounter();
+        Path journalDir = Files.createTempDirectory("loadtest-ingest-journal");
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, options.partitions());
+        kafka.afterPropertiesSet();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             FakeTelegramServer telegram = new FakeTelegramServer(probe, options.telegramLatencyMs(),
+                 options.telegram429Rate(), options.telegramThreads());
+             FakeSmtpServer smtp = new FakeSmtpServer(probe, options.smtpLatencyMs())) {
+
+            Map<String, String> properties = new LinkedHashMap<>();
+            properties.put("server.port", "0");
+            properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+            properties.put("spring.datasource.username", "postgres");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+            properties.put("notification.kafka.partitions", String.valueOf(options.partitions()));
+            properties.put("notification.kafka.consumer.concurrency", String.valueOf(options.concurrency()));
+            properties.put("notification.telegram.api-url", telegram.apiUrl());
+            // Measure the service, not Telegram's flood limits; pass these to test the limiter
+            properties.put("notification.telegram.rate-limit.bot-per-second", "1000000");
+            properties.put("notification.telegram.rate-limit.chat-per-second", "1000");
+            properties.put("notification.telegram.rate-limit.group-per-minute", "1000000");
+            properties.put("notification.ingest.journal-dir", journalDir.toString());
+            properties.put("logging.level.com.emenu", "WARN");
+            properties.put("logging.level.com.emenu.loadtest", "INFO");
+            properties.put("logging.level.org.apache.kafka", "WARN");
+            for (String arg : args) {
+                if ((arg.startsWith("--spring.") || arg.startsWith("--notification.") || arg.startsWith("--logging."))
+                        && arg.contains("=")) {
+                    properties.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+                }
+            }
+
+            SpringApplication application = new SpringApplication(EMenuApplication.class);
+            application.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(statements));
+            String[] applicationArgs = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+
+            try (ConfigurableApplicationContext context = application.run(applicationArgs)) {
+                if (options.logInsertScenario()) {
+                    LogInsertBenchmark benchmark = new LogInsertBenchmark(options,
+                        context.getBean(NotificationLogRepository.class), context.getBean(TransactionTemplate.class),
+                        statements);
+                    System.out.println(benchmark.run());
+                } else {
+                    int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+                    String apiKey = createApiKey(context.getBean(ApiKeyRepository.class));
+
+                    LoadDriver driver = new LoadDriver(options, port, apiKey, smtp.port(),
+                        context.getBean(ObjectMapper.class), probe, statements);
+                    LoadReport report = driver.run();
+
+                    System.out.println(report.format());
+                    System.out.printf("Telegram 429s injected: %d, unmarked messages: %d%n%n",
+                        telegram.rejected(), probe.unmarked());
+                }
+            }
+        } finally {
+            kafka.destroy();
+        }
+        System.exit(0);
+    }
+
+    private static String createApiKey(ApiKeyRepository apiKeyRepository) {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setApiKeyValue("lt_" + UUID.randomUUID().toString().replace("-", ""));
+        apiKey.setSystemName("loadtest");
+        apiKey.setCompanyName("Load Test");
+        apiKey.setIsActive(true);
+        apiKey.setNeverExpires(true);
+        return apiKeyRepository.save(apiKey).getApiKeyValue();
+    }
+}
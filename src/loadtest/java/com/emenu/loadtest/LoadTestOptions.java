@@ -0,0 +1,67 @@
+package com.emenu.loadtest;
+
+import com.emenu.enums.notification.NotificationChannel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code --name=value} arguments. {@code --scenario=log-insert}
+ * runs {@link LogInsertBenchmark} instead of the delivery load test.
+ */
+public record LoadTestOptions(
+        int rps,
+        int durationSeconds,
+        int warmupSeconds,
+        int drainSeconds,
+        int recipients,
+        int chats,
+        NotificationChannel channel,
+        boolean mixed,
+        long telegramLatencyMs,
+        double telegram429Rate,
+        int telegramThreads,
+        long smtpLatencyMs,
+        int partitions,
+        int concurrency,
+        String scenario,
+        int insertRows) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        String channel = values.getOrDefault("channel", "TELEGRAM").toUpperCase();
+        boolean mixed = "MIXED".equals(channel);
+        return new LoadTestOptions(
+            intValue(values, "rps", 100),
+            intValue(values, "duration", 60),
+            intValue(values, "warmup", 10),
+            intValue(values, "drain", 60),
+            intValue(values, "recipients", 1),
+            intValue(values, "chats", 10_000),
+            mixed ? NotificationChannel.TELEGRAM : NotificationChannel.valueOf(channel),
+            mixed,
+            intValue(values, "telegram-latency-ms", 50),
+            Double.parseDouble(values.getOrDefault("telegram-429-rate", "0.0")),
+            intValue(values, "telegram-threads", 256),
+            intValue(values, "smtp-latency-ms", 20),
+            intValue(values, "partitions", 12),
+            intValue(values, "concurrency", 6),
+            values.getOrDefault("scenario", "delivery").toLowerCase(),
+            intValue(values, "insert-rows", 100_000));
+    }
+
+    public boolean logInsertScenario() {
+        return "log-insert".equals(scenario);
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
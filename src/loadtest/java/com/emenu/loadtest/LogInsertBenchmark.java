@@ -0,0 +1,114 @@
+package com.emenu.loadtest;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationStatus;
+import com.emenu.enums.notification.NotificationType;
+import com.emenu.features.notification.models.NotificationLog;
+import com.emenu.features.notification.repository.NotificationLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures notification log inserts per second for each way the send paths have written a
+ * request's fan-out: one flushed save per log as before batching, Hibernate batching through
+ * saveAll, and the JDBC batch of {@link NotificationLogRepository#insertAll}. Every mode writes
+ * {@code --insert-rows} logs in transactions of {@code --recipients} logs each, after a warm-up
+ * of a tenth of that, and starts from an empty table.
+ */
+@Slf4j
+public class LogInsertBenchmark {
+
+    private final LoadTestOptions options;
+    private final NotificationLogRepository logRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StatementCounter statements;
+
+    public LogInsertBenchmark(LoadTestOptions options, NotificationLogRepository logRepository,
+                              TransactionTemplate transactionTemplate, StatementCounter statements) {
+        this.options = options;
+        this.logRepository = logRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.statements = statements;
+    }
+
+    public String run() {
+        List<String> lines = new ArrayList<>();
+        lines.add("");
+        lines.add("===== LOG INSERT REPORT =====");
+        lines.add(String.format("Logs:             %d per mode, %d per transaction",
+            options.insertRows(), options.recipients()));
+
+        for (Mode mode : Mode.values()) {
+            logRepository.deleteAllInBatch();
+            log.info("Inserting {} logs: {}", options.insertRows(), mode.description);
+            insert(mode, Math.max(options.recipients(), options.insertRows() / 10));
+            logRepository.deleteAllInBatch();
+
+            statements.reset();
+            long start = System.nanoTime();
+            insert(mode, options.insertRows());
+            double seconds = Math.max(1e-9, (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1));
+
+            lines.add(String.format("%-17s %.0f inserts/s, %.3f executions per log (%d executions, %d batched rows, %d commits)",
+                mode.description + ":", options.insertRows() / seconds,
+                statements.executions() / (double) options.insertRows(),
+                statements.executions(), statements.batchedRows(), statements.commits()));
+        }
+        logRepository.deleteAllInBatch();
+
+        lines.add("");
+        return String.join("\n", lines);
+    }
+
+    // ===== HELPER METHODS =====
+
+    private void insert(Mode mode, int rows) {
+        for (int done = 0; done < rows; done += options.recipients()) {
+            List<NotificationLog> logs = newLogs(Math.min(options.recipients(), rows - done));
+            transactionTemplate.executeWithoutResult(status -> {
+                switch (mode) {
+                    case SAVE_AND_FLUSH -> logs.forEach(logRepository::saveAndFlush);
+                    case SAVE_ALL -> logRepository.saveAll(logs);
+                    case INSERT_ALL -> logRepository.insertAll(logs);
+                }
+            });
+        }
+    }
+
+    private List<NotificationLog> newLogs(int count) {
+        String batchId = UUID.randomUUID().toString();
+        List<NotificationLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            NotificationLog notificationLog = new NotificationLog();
+            notificationLog.setBatchId(batchId);
+            notificationLog.setApiKeyValue("lt_insert");
+            notificationLog.setSystemName("loadtest");
+            notificationLog.setChannel(NotificationChannel.TELEGRAM);
+            notificationLog.setType(NotificationType.INFO);
+            notificationLog.setStatus(NotificationStatus.PENDING);
+            notificationLog.setRecipient(String.valueOf(100_000 + i));
+            notificationLog.setSubject("Load test");
+            notificationLog.setMessage("Load test notification");
+            notificationLog.setRetryCount(0);
+            logs.add(notificationLog);
+        }
+        return logs;
+    }
+
+    private enum Mode {
+        SAVE_AND_FLUSH("save per log"),
+        SAVE_ALL("saveAll"),
+        INSERT_ALL("insertAll");
+
+        private final String description;
+
+        Mode(String description) {
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.emenu.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the JDBC statements the application executes by wrapping its DataSource, down to
+ * connections and statements, in dynamic proxies. A batch counts as one execution; the rows
+ * it carries are counted separately.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong batchedRows = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, dataSource, this::wrapConnection);
+        }
+        return bean;
+    }
+
+    public void reset() {
+        executions.set(0);
+        batchedRows.set(0);
+        commits.set(0);
+    }
+
+    public long executions() {
+        return executions.get();
+    }
+
+    public long batchedRows() {
+        return batchedRows.get();
+    }
+
+    public long commits() {
+        return commits.get();
+    }
+
+    private Object wrapConnection(Method method, Object result) {
+        if (result instanceof Connection connection) {
+            return proxy(Connection.class, connection, this::wrapStatement);
+        }
+        return result;
+    }
+
+    private Object wrapStatement(Method method, Object result) {
+        if ("commit".equals(method.getName())) {
+            commits.incrementAndGet();
+        }
+        if (result instanceof CallableStatement statement) {
+            return proxy(CallableStatement.class, statement, this::countExecution);
+        }
+        if (result instanceof PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, this::countExecution);
+        }
+        if (result instanceof Statement statement) {
+            return proxy(Statement.class, statement, this::countExecution);
+        }
+        return result;
+    }
+
+    private Object countExecution(Method method, Object result) {
+        String name = method.getName();
+        if (EXECUTE_METHODS.contains(name)) {
+            executions.incrementAndGet();
+        } else if ("addBatch".equals(name)) {
+            batchedRows.incrementAndGet();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("unwrap".equals(method.getName()) && args != null && args[0] instanceof Class<?> iface
+                    && iface.isInstance(target)) {
+                return target;
+            }
+            if ("isWrapperFor".equals(method.getName()) && args != null && args[0] instanceof Class<?> iface
+                    && iface.isInstance(target)) {
+                return true;
+            }
+            try {
+                return wrapper.wrap(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface ResultWrapper {
+        Object wrap(Method method, Object result);
+    }
+}
@@ -0,0 +1,62 @@
+package com.emenu.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Column changes that {@code ddl-auto: update} does not apply to existing tables. Runs once
+ * Hibernate has updated the schema and before any scheduled job or listener starts; each step
+ * checks the current schema first, so it is a no-op on fresh or already migrated databases.
+ * Startup fails if a step cannot be applied, rather than every later write failing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationSchemaMigration {
+
+    private static final String COLUMN_TYPE_SQL =
+            "SELECT data_type FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Depends on the entity manager factory so Hibernate's schema update has already run
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void migrate() {
+        // Outbox payloads became binary-encoded messages; existing rows are JSON text, which
+        // the codec still decodes
+        if ("text".equals(columnType("notification_outbox", "payload"))) {
+            apply("notification_outbox.payload TEXT -> BYTEA",
+                    "ALTER TABLE notification_outbox ALTER COLUMN payload TYPE bytea USING convert_to(payload, 'UTF8')");
+        }
+        // The relay skips rows that used up their publish attempts; NULL would never count up
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM notification_outbox WHERE attempts IS NULL)", Boolean.class))) {
+            apply("notification_outbox.attempts NULL -> 0",
+                    "UPDATE notification_outbox SET attempts = 0 WHERE attempts IS NULL");
+        }
+    }
+
+    // ===== HELPER METHODS =====
+
+    private String columnType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList(COLUMN_TYPE_SQL, String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    private void apply(String description, String sql) {
+        log.info("Migrating schema: {}", description);
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (Exception e) {
+            throw new IllegalStateException("Schema migration failed (" + description + "); apply manually: " + sql, e);
+        }
+    }
+}
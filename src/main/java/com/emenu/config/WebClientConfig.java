@@ -0,0 +1,41 @@
+package com.emenu.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    @Value("${notification.telegram.timeout:5000}")
+    private int telegramTimeout;
+
+    @Value("${notification.telegram.max-connections:100}")
+    private int telegramMaxConnections;
+
+    @Bean
+    public WebClient telegramWebClient(WebClient.Builder webClientBuilder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("telegram")
+                .maxConnections(telegramMaxConnections)
+                .pendingAcquireMaxCount(telegramMaxConnections * 10)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, telegramTimeout)
+                .responseTimeout(Duration.ofMillis(telegramTimeout))
+                .keepAlive(true);
+
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+package com.emenu.enums.notification;
+
+public enum CampaignFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,31 @@
+package com.emenu.enums.notification;
+
+/**
+ * Delivery lane of a notification. Each lane has its own topic per channel, so bulk traffic
+ * in a lower lane never queues in front of alerts.
+ */
+public enum NotificationPriority {
+    HIGH("-high"),
+    NORMAL(""),
+    LOW("-low");
+
+    private final String topicSuffix;
+
+    NotificationPriority(String topicSuffix) {
+        this.topicSuffix = topicSuffix;
+    }
+
+    public String topic(String baseTopic) {
+        return baseTopic + topicSuffix;
+    }
+
+    /**
+     * Default lane for a type when the sender does not set one explicitly.
+     */
+    public static NotificationPriority of(NotificationType type) {
+        if (type == NotificationType.ALERT || type == NotificationType.ERROR) {
+            return HIGH;
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,16 @@
+package com.emenu.enums.notification;
+
+/**
+ * What a delivery record is keyed by, and so which messages share a partition and keep
+ * their relative order.
+ */
+public enum PartitionKeyStrategy {
+    /** Whole batch on one partition; preserves batch order but serialises large batches. */
+    BATCH,
+    /** Per-recipient ordering; a batch spreads across all partitions. */
+    RECIPIENT,
+    /** Per-tenant ordering; one API key or system stays on a single partition. */
+    TENANT,
+    /** Per-chat ordering for each sender, matching Telegram's per-bot, per-chat limits. */
+    CHAT
+}
@@ -0,0 +1,61 @@
+package com.emenu.features.notification.cache;
+
+import com.emenu.features.notification.dto.ApiKeySnapshot;
+import com.emenu.features.notification.repository.ApiKeyRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caches API key snapshots by key value so validating a request does not hit the database.
+ * Unknown keys are cached too, as an empty snapshot, so invalid keys cannot bypass the cache.
+ * Admin changes evict the entry immediately and again after their transaction commits, so
+ * a concurrent load cannot put the old state back.
+ */
+@Component
+@Slf4j
+public class ApiKeyCache {
+
+    public static final String CACHE_NAME = "apiKeys";
+
+    private final LoadingCache<String, Optional<ApiKeySnapshot>> cache;
+
+    public ApiKeyCache(ApiKeyRepository apiKeyRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${notification.api-key-cache.max-size:10000}") long maxSize,
+                       @Value("${notification.api-key-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(apiKeyValue -> apiKeyRepository.findByApiKeyValueAndIsDeletedFalse(apiKeyValue)
+                        .map(ApiKeySnapshot::from));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<ApiKeySnapshot> get(String apiKeyValue) {
+        return cache.get(apiKeyValue);
+    }
+
+    public void evict(String apiKeyValue) {
+        cache.invalidate(apiKeyValue);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(apiKeyValue);
+                }
+            });
+        }
+        log.debug("Evicted API key from cache: {}...", apiKeyValue.substring(0, Math.min(8, apiKeyValue.length())));
+    }
+}
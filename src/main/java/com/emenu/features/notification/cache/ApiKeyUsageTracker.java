@@ -0,0 +1,144 @@
+package com.emenu.features.notification.cache;
+
+import com.emenu.exception.custom.UnauthorizedException;
+import com.emenu.features.notification.dto.ApiKeySnapshot;
+import com.emenu.features.notification.repository.ApiKeyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory usage counters for API key quotas. Each key keeps the last usage read from the
+ * database plus a striped {@link LongAdder} of unflushed increments, so concurrent sends
+ * from one tenant never contend on the api key row. Deltas are written back with
+ * {@code current_usage = current_usage + ?} every flush-interval-ms.
+ * <p>
+ * The quota check and the increment are not one atomic step, and other instances only see
+ * this instance's usage after a flush. Overshoot is therefore bounded by the requests in
+ * flight plus what all instances accept within one flush interval.
+ */
+@Component
+@Slf4j
+public class ApiKeyUsageTracker {
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, UsageCounter> counters = new ConcurrentHashMap<>();
+
+    @Value("${notification.usage.refresh-after-ms:30000}")
+    private long refreshAfterMs;
+
+    public ApiKeyUsageTracker(ApiKeyRepository apiKeyRepository, TransactionTemplate transactionTemplate) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Adds {@code count} to the key's usage if it stays within the monthly limit. When called
+     * inside a transaction, the reservation is released again if that transaction rolls back.
+     */
+    public void reserve(ApiKeySnapshot apiKey, int count) {
+        UsageCounter counter = counter(apiKey.getId());
+
+        if (!apiKey.isUnlimited() && counter.current() + count > apiKey.getMonthlyLimit()) {
+            throw new UnauthorizedException("API key has reached monthly usage limit");
+        }
+        counter.pending.add(count);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counter.pending.add(-count);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Usage including increments that have not been flushed yet.
+     */
+    public long currentUsage(UUID apiKeyId) {
+        return counter(apiKeyId).current();
+    }
+
+    /**
+     * Drops the in-memory state for a key after its usage was reset in the database.
+     */
+    public void reset(UUID apiKeyId) {
+        counters.remove(apiKeyId);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.usage.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.nanoTime();
+        counters.forEach((apiKeyId, counter) -> {
+            long delta = counter.pending.sumThenReset();
+            if (delta == 0) {
+                if (now - counter.loadedAt > TimeUnit.MILLISECONDS.toNanos(refreshAfterMs)) {
+                    counters.remove(apiKeyId, counter);
+                }
+                return;
+            }
+
+            // Count the delta as persisted while the update runs so readers never miss it
+            counter.base.addAndGet(delta);
+            try {
+                Integer persisted = transactionTemplate.execute(status -> {
+                    apiKeyRepository.addUsage(apiKeyId, delta);
+                    return apiKeyRepository.findCurrentUsage(apiKeyId);
+                });
+                if (persisted != null) {
+                    counter.base.set(persisted);
+                    counter.loadedAt = System.nanoTime();
+                }
+            } catch (Exception e) {
+                counter.base.addAndGet(-delta);
+                counter.pending.add(delta);
+                log.error("Failed to flush usage for API key {}: {}", apiKeyId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ===== HELPER METHODS =====
+
+    private UsageCounter counter(UUID apiKeyId) {
+        return counters.computeIfAbsent(apiKeyId, id -> {
+            Integer usage = apiKeyRepository.findCurrentUsage(id);
+            return new UsageCounter(usage != null ? usage : 0);
+        });
+    }
+
+    private static final class UsageCounter {
+        private final AtomicLong base;
+        private final LongAdder pending = new LongAdder();
+        private volatile long loadedAt = System.nanoTime();
+
+        private UsageCounter(long base) {
+            this.base = new AtomicLong(base);
+        }
+
+        private long current() {
+            return base.get() + pending.sum();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.emenu.features.notification.cache;
+
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
+import com.emenu.features.notification.models.SenderProfile;
+import com.emenu.features.notification.repository.SenderProfileRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Consumer-side cache of sender profiles by id. A message names the profile version it was
+ * queued with; a cached profile older than that is reloaded, so credential changes take
+ * effect without any explicit invalidation.
+ */
+@Component
+@Slf4j
+public class SenderProfileCache {
+
+    public static final String CACHE_NAME = "senderProfilesById";
+
+    private final SenderProfileRepository profileRepository;
+    private final Cache<UUID, SenderProfileSnapshot> cache;
+
+    public SenderProfileCache(SenderProfileRepository profileRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${notification.sender-profile.cache-max-size:10000}") long maxSize,
+                              @Value("${notification.sender-profile.cache-ttl-minutes:60}") long ttlMinutes) {
+        this.profileRepository = profileRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Loads every missing or outdated profile referenced by the messages in one query.
+     */
+    public void preload(Collection<NotificationMessage> messages) {
+        Set<UUID> missing = new HashSet<>();
+        for (NotificationMessage message : messages) {
+            if (message.getSenderProfileId() != null && !isCurrent(message)) {
+                missing.add(message.getSenderProfileId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (SenderProfile profile : profileRepository.findAllById(missing)) {
+            cache.put(profile.getId(), SenderProfileSnapshot.from(profile));
+        }
+        log.debug("Loaded {} sender profiles", missing.size());
+    }
+
+    /**
+     * Returns the message's sender profile, or null if it no longer exists. Messages queued
+     * before sender profiles resolve to their inline credentials.
+     */
+    public SenderProfileSnapshot get(NotificationMessage message) {
+        UUID profileId = message.getSenderProfileId();
+        if (profileId == null) {
+            return SenderProfileSnapshot.inline(message);
+        }
+        if (!isCurrent(message)) {
+            profileRepository.findById(profileId)
+                    .ifPresent(profile -> cache.put(profileId, SenderProfileSnapshot.from(profile)));
+        }
+        return cache.getIfPresent(profileId);
+    }
+
+    private boolean isCurrent(NotificationMessage message) {
+        SenderProfileSnapshot cached = cache.getIfPresent(message.getSenderProfileId());
+        int required = message.getSenderProfileVersion() != null ? message.getSenderProfileVersion() : 0;
+        return cached != null && cached.getProfileVersion() >= required;
+    }
+}
@@ -0,0 +1,30 @@
+package com.emenu.features.notification.controller;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.dto.response.DeadLetterReplayResponse;
+import com.emenu.features.notification.service.DeadLetterService;
+import com.emenu.shared.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/notification/dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('PLATFORM_OWNER') or hasRole('PLATFORM_ADMIN')")
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    @PostMapping("/{channel}/replay")
+    public ResponseEntity<ApiResponse<DeadLetterReplayResponse>> replay(
+            @PathVariable NotificationChannel channel,
+            @RequestParam(defaultValue = "500") Integer limit) {
+        log.info("Replaying up to {} {} dead letters", limit, channel);
+        DeadLetterReplayResponse response = deadLetterService.replay(channel, limit);
+        return ResponseEntity.ok(ApiResponse.success("Dead letters replayed", response));
+    }
+}
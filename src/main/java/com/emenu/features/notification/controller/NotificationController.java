@@ -1,17 +1,24 @@
 package com.emenu.features.notification.controller;
 
+import com.emenu.enums.notification.CampaignFormat;
+import com.emenu.features.notification.dto.request.BulkSendNotificationRequest;
 import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.dto.response.BulkSendNotificationResponse;
 import com.emenu.features.notification.dto.response.NotificationLogResponse;
 import com.emenu.features.notification.dto.response.SendNotificationResponse;
+import com.emenu.features.notification.service.IdempotencyService;
 import com.emenu.features.notification.service.NotificationService;
 import com.emenu.shared.dto.ApiResponse;
 import com.emenu.shared.dto.PaginationResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -21,17 +28,61 @@ import java.util.UUID;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/send")
     public ResponseEntity<ApiResponse<SendNotificationResponse>> sendNotification(
             @RequestHeader("X-API-Key") String apiKey,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody SendNotificationRequest request) {
         
         log.info("Notification request received - API Key: {}...", apiKey.substring(0, 8));
-        SendNotificationResponse response = notificationService.sendNotification(apiKey, request);
+        SendNotificationResponse response = idempotencyService.execute(apiKey, idempotencyKey, "send",
+                request, SendNotificationResponse.class,
+                () -> notificationService.sendNotification(apiKey, request));
         return ResponseEntity.ok(ApiResponse.success("Notification sent successfully", response));
     }
 
+    @PostMapping("/send/bulk")
+    public ResponseEntity<ApiResponse<BulkSendNotificationResponse>> sendBulkNotification(
+            @RequestHeader("X-API-Key") String apiKey,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody BulkSendNotificationRequest request) {
+
+        log.info("Bulk notification request received - API Key: {}..., Items: {}",
+                 apiKey.substring(0, 8), request.getItems().size());
+        BulkSendNotificationResponse response = idempotencyService.execute(apiKey, idempotencyKey, "send-bulk",
+                request, BulkSendNotificationResponse.class,
+                () -> notificationService.sendBulkNotification(apiKey, request));
+        return ResponseEntity.ok(ApiResponse.success("Bulk notification processed", response));
+    }
+
+    @PostMapping(value = "/campaigns", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<SendNotificationResponse>> sendCampaign(
+            @RequestHeader("X-API-Key") String apiKey,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        log.info("Campaign upload received - API Key: {}..., Content-Type: {}", apiKey.substring(0, 8), contentType);
+        CampaignFormat format = contentType.startsWith("text/csv") ? CampaignFormat.CSV : CampaignFormat.NDJSON;
+        SendNotificationResponse response = notificationService.sendCampaign(apiKey, body, format);
+        return ResponseEntity.ok(ApiResponse.success("Campaign processed", response));
+    }
+
+    @PostMapping("/send/async")
+    public ResponseEntity<ApiResponse<SendNotificationResponse>> sendNotificationAsync(
+            @RequestHeader("X-API-Key") String apiKey,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody SendNotificationRequest request) {
+
+        log.info("Async notification request received - API Key: {}...", apiKey.substring(0, 8));
+        SendNotificationResponse response = idempotencyService.execute(apiKey, idempotencyKey, "send-async",
+                request, SendNotificationResponse.class,
+                () -> notificationService.acceptNotification(apiKey, request));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Notification accepted", response));
+    }
+
     @GetMapping("/logs")
     public ResponseEntity<ApiResponse<PaginationResponse<NotificationLogResponse>>> getMyLogs(
             @RequestHeader("X-API-Key") String apiKey,
@@ -0,0 +1,71 @@
+package com.emenu.features.notification.controller;
+
+import com.emenu.features.notification.dto.request.CreateTemplateRequest;
+import com.emenu.features.notification.dto.request.UpdateTemplateRequest;
+import com.emenu.features.notification.dto.response.TemplateResponse;
+import com.emenu.features.notification.service.NotificationTemplateService;
+import com.emenu.shared.dto.ApiResponse;
+import com.emenu.shared.dto.PaginationResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/public/notifications/templates")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationTemplateController {
+
+    private final NotificationTemplateService templateService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<TemplateResponse>> createTemplate(
+            @RequestHeader("X-API-Key") String apiKey,
+            @Valid @RequestBody CreateTemplateRequest request) {
+        log.info("Creating template: {}", request.getName());
+        TemplateResponse response = templateService.createTemplate(apiKey, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(ApiResponse.success("Template created successfully", response));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<PaginationResponse<TemplateResponse>>> getTemplates(
+            @RequestHeader("X-API-Key") String apiKey,
+            @RequestParam(defaultValue = "1") Integer pageNo,
+            @RequestParam(defaultValue = "15") Integer pageSize) {
+        PaginationResponse<TemplateResponse> response = templateService.getTemplates(apiKey, pageNo, pageSize);
+        return ResponseEntity.ok(ApiResponse.success("Templates retrieved", response));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<TemplateResponse>> getTemplateById(
+            @RequestHeader("X-API-Key") String apiKey,
+            @PathVariable UUID id) {
+        TemplateResponse response = templateService.getTemplateById(apiKey, id);
+        return ResponseEntity.ok(ApiResponse.success("Template retrieved", response));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<TemplateResponse>> updateTemplate(
+            @RequestHeader("X-API-Key") String apiKey,
+            @PathVariable UUID id,
+            @Valid @RequestBody UpdateTemplateRequest request) {
+        log.info("Updating template: {}", id);
+        TemplateResponse response = templateService.updateTemplate(apiKey, id, request);
+        return ResponseEntity.ok(ApiResponse.success("Template updated successfully", response));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteTemplate(
+            @RequestHeader("X-API-Key") String apiKey,
+            @PathVariable UUID id) {
+        log.info("Deleting template: {}", id);
+        templateService.deleteTemplate(apiKey, id);
+        return ResponseEntity.ok(ApiResponse.success("Template deleted successfully", null));
+    }
+}
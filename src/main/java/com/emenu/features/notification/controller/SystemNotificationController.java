@@ -4,6 +4,7 @@ import com.emenu.features.notification.dto.request.SystemSendNotificationRequest
 import com.emenu.features.notification.dto.request.UpdateSystemSettingsRequest;
 import com.emenu.features.notification.dto.response.SystemSendNotificationResponse;
 import com.emenu.features.notification.dto.response.SystemSettingsResponse;
+import com.emenu.features.notification.service.IdempotencyService;
 import com.emenu.features.notification.service.SystemNotificationService;
 import com.emenu.shared.dto.ApiResponse;
 import jakarta.validation.Valid;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class SystemNotificationController {
 
     private final SystemNotificationService systemNotificationService;
+    private final IdempotencyService idempotencyService;
 
     // ========== ADMIN ENDPOINTS (Configure Settings) ==========
 
@@ -44,14 +46,16 @@ public class SystemNotificationController {
     @PostMapping("/send")
     public ResponseEntity<ApiResponse<SystemSendNotificationResponse>> sendSystemNotification(
             @RequestHeader("X-API-Key") String apiKey,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody SystemSendNotificationRequest request) {
         
         log.info("System notification request - API Key: {}..., Channel: {}, Type: {}", 
                  apiKey.substring(0, Math.min(8, apiKey.length())), 
                  request.getChannel(), request.getType());
         
-        SystemSendNotificationResponse response = 
-            systemNotificationService.sendSystemNotification(apiKey, request);
+        SystemSendNotificationResponse response = idempotencyService.execute(apiKey, idempotencyKey,
+            "system-send", request, SystemSendNotificationResponse.class,
+            () -> systemNotificationService.sendSystemNotification(apiKey, request));
         
         return ResponseEntity.ok(ApiResponse.success("System notification sent", response));
     }
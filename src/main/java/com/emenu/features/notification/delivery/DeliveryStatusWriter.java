@@ -0,0 +1,223 @@
+package com.emenu.features.notification.delivery;
+
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.repository.NotificationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for delivery outcomes. Consumers hand over the results of a batch and
+ * get a future that completes once those results are in the database; the Kafka offsets are
+ * acknowledged from that future, so a crash before the flush only causes a redelivery.
+ * <p>
+ * Results are flushed every flush-interval-ms or as soon as batch-size results are pending.
+ * The periodic flush runs on the writer's own thread, so slow scheduled jobs elsewhere never
+ * hold back offset acknowledgements.
+ * A failed flush keeps everything pending for the next attempt, and futures always complete
+ * in submission order so a later batch never commits offsets ahead of an earlier one.
+ */
+@Component
+@Slf4j
+public class DeliveryStatusWriter {
+
+    private final NotificationLogRepository logRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter flushFailures;
+    private final Timer writeLatency;
+
+    private final Deque<PendingWrite> pending = new ArrayDeque<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "delivery-status-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private int pendingResults;
+
+    @Value("${notification.status-writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.status-writer.max-pending:20000}")
+    private int maxPending;
+
+    @Value("${notification.status-writer.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    @Value("${notification.status-writer.backpressure-timeout-ms:60000}")
+    private long backpressureTimeoutMs;
+
+    public DeliveryStatusWriter(NotificationLogRepository logRepository,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry) {
+        this.logRepository = logRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.flushFailures = Counter.builder("notification.status.flush_failures")
+                .description("Number of failed delivery-status flushes")
+                .register(meterRegistry);
+        this.writeLatency = Timer.builder("notification.status.write")
+                .description("Time from submitting delivery results until they are written")
+                .register(meterRegistry);
+        Gauge.builder("notification.status.pending", this, DeliveryStatusWriter::getPendingResults)
+                .description("Delivery results waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue results for the next flush. When more than max-pending results are already
+     * waiting, the caller is held until its own results are written, however long that
+     * takes, which stops the consumer from polling further while the database is unavailable.
+     */
+    public CompletableFuture<Void> submit(List<DeliveryResult> results) {
+        PendingWrite write = new PendingWrite(results);
+        int size;
+        synchronized (pending) {
+            pending.addLast(write);
+            pendingResults += results.size();
+            size = pendingResults;
+        }
+
+        if (size >= batchSize) {
+            flush();
+        }
+        if (size > maxPending && !write.future.isDone()) {
+            awaitBackpressure(write);
+        }
+        return write.future;
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingWrite> writes;
+            synchronized (pending) {
+                writes = new ArrayList<>(pending);
+            }
+            if (writes.isEmpty()) {
+                return;
+            }
+
+            try {
+                List<DeliveryResult> results = coalesce(writes);
+                transactionTemplate.executeWithoutResult(status -> logRepository.applyDeliveryResults(results));
+                log.debug("Flushed {} delivery results", results.size());
+            } catch (Exception e) {
+                flushFailures.increment();
+                log.error("Failed to flush {} delivery results, will retry: {}", writes.size(), e.getMessage());
+                return;
+            }
+
+            synchronized (pending) {
+                for (PendingWrite write : writes) {
+                    pending.pollFirst();
+                    pendingResults -= write.results.size();
+                }
+            }
+            long now = System.nanoTime();
+            for (PendingWrite write : writes) {
+                if (!write.results.isEmpty()) {
+                    writeLatency.record(now - write.submittedAt, TimeUnit.NANOSECONDS);
+                }
+                write.future.complete(null);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+        synchronized (pending) {
+            if (!pending.isEmpty()) {
+                log.warn("{} delivery results were not written before shutdown", pendingResults);
+            }
+        }
+    }
+
+    public int getPendingResults() {
+        synchronized (pending) {
+            return pendingResults;
+        }
+    }
+
+    // ===== HELPER METHODS =====
+
+    /**
+     * The last outcome for a log wins, so a redelivered message only produces one update.
+     */
+    private List<DeliveryResult> coalesce(List<PendingWrite> writes) {
+        Map<Object, DeliveryResult> byLogId = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            for (DeliveryResult result : write.results) {
+                byLogId.put(result.getLogId(), result);
+            }
+        }
+        return new ArrayList<>(byLogId.values());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Unexpected error flushing delivery results: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Blocks until the write is flushed, warning every backpressure-timeout-ms. Only an
+     * interrupt, i.e. the listener container stopping, releases the caller early; its
+     * offsets are then never acknowledged.
+     */
+    private void awaitBackpressure(PendingWrite write) {
+        while (!write.future.isDone()) {
+            try {
+                write.future.get(backpressureTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Delivery status backlog of {} results is not draining", getPendingResults());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error waiting for delivery status flush: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private static final class PendingWrite {
+        private final List<DeliveryResult> results;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long submittedAt = System.nanoTime();
+
+        private PendingWrite(List<DeliveryResult> results) {
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.emenu.features.notification.delivery;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of connected and authenticated SMTP transports, keyed by SMTP server and
+ * account. Transports idle longer than the validation threshold are checked with NOOP
+ * before reuse, and transports idle longer than the idle timeout are closed. A transport
+ * whose connection failed is closed instead of returned, and pools left without any
+ * connection are dropped by the eviction pass.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final ConcurrentMap<SmtpKey, KeyedPool> pools = new ConcurrentHashMap<>();
+
+    @Value("${notification.email.timeout:10000}")
+    private int timeout;
+
+    @Value("${notification.email.pool.max-per-key:5}")
+    private int maxPerKey;
+
+    @Value("${notification.email.pool.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMs;
+
+    @Value("${notification.email.pool.validate-after-idle-ms:5000}")
+    private long validateAfterIdleMs;
+
+    @Value("${notification.email.pool.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    public record SmtpKey(String host, int port, String username, boolean ssl, boolean tls) {
+    }
+
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doWithConnection(SmtpConnection connection) throws MessagingException;
+    }
+
+    public int getMaxPerKey() {
+        return maxPerKey;
+    }
+
+    /**
+     * Borrow one connection for the key, run the callback on it and return it to the pool.
+     */
+    public <T> T execute(SmtpKey key, String password, ConnectionCallback<T> callback) throws MessagingException {
+        KeyedPool pool = pools.compute(key, (k, existing) -> {
+            if (existing != null && Objects.equals(existing.password, password)) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.closeIdle(0);
+            }
+            return new KeyedPool(k, password);
+        });
+
+        SmtpConnection connection = pool.borrow();
+        boolean healthy = false;
+        try {
+            T result = callback.doWithConnection(connection);
+            healthy = !connection.broken;
+            return result;
+        } finally {
+            pool.release(connection, healthy);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.email.pool.eviction-interval-ms:30000}")
+    public void evictIdle() {
+        pools.values().forEach(pool -> pool.closeIdle(idleTimeoutMs));
+        // Keys are per tenant account; drop the pools nobody is using any more
+        pools.keySet().forEach(key -> pools.computeIfPresent(key, (k, pool) -> pool.isUnused() ? null : pool));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        pools.values().forEach(pool -> pool.closeIdle(0));
+        pools.clear();
+    }
+
+    public final class SmtpConnection {
+
+        private final KeyedPool pool;
+        private final Transport transport;
+        private long lastUsed = System.currentTimeMillis();
+        private volatile boolean broken;
+
+        private SmtpConnection(KeyedPool pool, Transport transport) {
+            this.pool = pool;
+            this.transport = transport;
+        }
+
+        public Session getSession() {
+            return pool.session;
+        }
+
+        /**
+         * True once the connection failed and could not be re-established; the caller should
+         * stop using it and borrow another one.
+         */
+        public boolean isBroken() {
+            return broken;
+        }
+
+        /**
+         * Send over this connection, reconnecting once if the server dropped it. If the
+         * reconnect or the resend fails at the connection level as well, the connection is
+         * marked broken.
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            message.saveChanges();
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (IllegalStateException | MessagingException e) {
+                if (!isConnectionFailure(e)) {
+                    throw e;
+                }
+                log.debug("SMTP connection to {} dropped, reconnecting", pool.key.host());
+                close();
+                try {
+                    pool.connect(transport);
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (IllegalStateException | MessagingException retryError) {
+                    if (isConnectionFailure(retryError) || !transport.isConnected()) {
+                        broken = true;
+                    }
+                    throw retryError;
+                }
+            }
+        }
+
+        private boolean isConnectionFailure(Exception e) {
+            if (e instanceof IllegalStateException) {
+                return true;
+            }
+            Exception next = ((MessagingException) e).getNextException();
+            return next instanceof IOException || e.getCause() instanceof IOException;
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP transport: {}", e.getMessage());
+            }
+        }
+    }
+
+    private final class KeyedPool {
+
+        private final SmtpKey key;
+        private final String password;
+        private final Session session;
+        private final Semaphore permits;
+        private final ConcurrentLinkedDeque<SmtpConnection> idle = new ConcurrentLinkedDeque<>();
+
+        private KeyedPool(SmtpKey key, String password) {
+            this.key = key;
+            this.password = password;
+            this.session = Session.getInstance(sessionProperties(key));
+            this.permits = new Semaphore(maxPerKey);
+        }
+
+        private SmtpConnection borrow() throws MessagingException {
+            try {
+                if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new MessagingException("Timed out waiting for an SMTP connection to " + key.host());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessagingException("Interrupted waiting for an SMTP connection to " + key.host());
+            }
+
+            try {
+                SmtpConnection connection;
+                while ((connection = idle.pollFirst()) != null) {
+                    if (isReusable(connection)) {
+                        return connection;
+                    }
+                    connection.close();
+                }
+
+                Transport transport = session.getTransport("smtp");
+                connect(transport);
+                return new SmtpConnection(this, transport);
+            } catch (MessagingException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private boolean isReusable(SmtpConnection connection) {
+            if (System.currentTimeMillis() - connection.lastUsed < validateAfterIdleMs) {
+                return true;
+            }
+            // SMTPTransport.isConnected() issues a NOOP to the server
+            return connection.transport.isConnected();
+        }
+
+        private void connect(Transport transport) throws MessagingException {
+            transport.connect(key.host(), key.port(), key.username(), password);
+        }
+
+        private void release(SmtpConnection connection, boolean healthy) {
+            try {
+                if (healthy && pools.get(key) == this) {
+                    connection.lastUsed = System.currentTimeMillis();
+                    idle.offerFirst(connection);
+                } else {
+                    connection.close();
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private boolean isUnused() {
+            return idle.isEmpty() && permits.availablePermits() == maxPerKey;
+        }
+
+        private void closeIdle(long maxIdleMs) {
+            long now = System.currentTimeMillis();
+            Iterator<SmtpConnection> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                SmtpConnection connection = iterator.next();
+                if (now - connection.lastUsed >= maxIdleMs && idle.removeFirstOccurrence(connection)) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private Properties sessionProperties(SmtpKey key) {
+        Properties props = new Properties();
+        props.put("mail.transport.protocol", "smtp");
+        props.put("mail.smtp.auth", "true");
+        props.put("mail.smtp.starttls.enable", String.valueOf(key.tls()));
+        props.put("mail.smtp.ssl.enable", String.valueOf(key.ssl()));
+        props.put("mail.smtp.connectiontimeout", String.valueOf(timeout));
+        props.put("mail.smtp.timeout", String.valueOf(timeout));
+        props.put("mail.smtp.writetimeout", String.valueOf(timeout));
+        return props;
+    }
+}
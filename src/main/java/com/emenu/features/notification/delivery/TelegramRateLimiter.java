@@ -0,0 +1,170 @@
+package com.emenu.features.notification.delivery;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket scheduler in front of the Telegram Bot API. Every send first waits for its
+ * chat bucket, then reserves its bot token at the moment the chat allows the send, instead
+ * of being throttled by Telegram. A 429 pauses both the chat and the bot bucket.
+ */
+@Component
+@Slf4j
+public class TelegramRateLimiter {
+
+    private final Cache<String, TokenBucket> botBuckets;
+    private final Cache<String, TokenBucket> chatBuckets;
+    private final Timer botThrottleTimer;
+    private final Timer chatThrottleTimer;
+    private final Counter retryAfterCounter;
+
+    @Value("${notification.telegram.rate-limit.bot-per-second:30}")
+    private double botPerSecond;
+
+    @Value("${notification.telegram.rate-limit.chat-per-second:1}")
+    private double chatPerSecond;
+
+    @Value("${notification.telegram.rate-limit.group-per-minute:20}")
+    private double groupPerMinute;
+
+    public TelegramRateLimiter(MeterRegistry meterRegistry) {
+        this.botBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .maximumSize(10_000)
+                .build();
+        this.chatBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .maximumSize(1_000_000)
+                .build();
+        this.botThrottleTimer = Timer.builder("notification.telegram.throttled")
+                .description("Time Telegram sends were delayed by the local rate limiter")
+                .tag("bucket", "bot")
+                .register(meterRegistry);
+        this.chatThrottleTimer = Timer.builder("notification.telegram.throttled")
+                .description("Time Telegram sends were delayed by the local rate limiter")
+                .tag("bucket", "chat")
+                .register(meterRegistry);
+        this.retryAfterCounter = Counter.builder("notification.telegram.retry_after")
+                .description("Number of 429 responses returned by Telegram")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes with true once a send to the chat is allowed by the chat bucket and then the
+     * bot bucket. Completes with false, holding no token, if either wait would end after the
+     * deadline (a {@link System#nanoTime()} value).
+     */
+    public Mono<Boolean> acquire(String botToken, String chatId, long deadline) {
+        long now = System.nanoTime();
+        TokenBucket chatBucket = chatBucket(botToken, chatId);
+        long chatWait = chatBucket.tryReserve(now, deadline - now);
+        if (chatWait < 0) {
+            return Mono.just(false);
+        }
+        if (chatWait > 0) {
+            chatThrottleTimer.record(chatWait, TimeUnit.NANOSECONDS);
+        }
+
+        // The bot token is taken only when the chat allows the send, so delayed chats do not
+        // hold bot tokens that other chats could use in the meantime
+        Mono<Boolean> bot = Mono.defer(() -> {
+            long at = System.nanoTime();
+            long botWait = botBucket(botToken).tryReserve(at, deadline - at);
+            if (botWait < 0) {
+                chatBucket.release();
+                return Mono.just(false);
+            }
+            if (botWait == 0) {
+                return Mono.just(true);
+            }
+            botThrottleTimer.record(botWait, TimeUnit.NANOSECONDS);
+            return Mono.delay(Duration.ofNanos(botWait)).thenReturn(true);
+        });
+        return chatWait > 0 ? Mono.delay(Duration.ofNanos(chatWait)).then(bot) : bot;
+    }
+
+    /**
+     * Pause the chat and bot buckets for the retry_after seconds returned with a 429.
+     */
+    public void pause(String botToken, String chatId, long retryAfterSeconds) {
+        retryAfterCounter.increment();
+        log.warn("Telegram rate limit hit - Chat: {}, retry after {}s", chatId, retryAfterSeconds);
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfterSeconds);
+        chatBucket(botToken, chatId).pauseUntil(until);
+        botBucket(botToken).pauseUntil(until);
+    }
+
+    private TokenBucket botBucket(String botToken) {
+        return botBuckets.get(botToken, key -> new TokenBucket(botPerSecond, botPerSecond));
+    }
+
+    private TokenBucket chatBucket(String botToken, String chatId) {
+        return chatBuckets.get(botToken + ":" + chatId, key -> isGroupChat(chatId)
+                ? new TokenBucket(groupPerMinute / 60.0, groupPerMinute)
+                : new TokenBucket(chatPerSecond, Math.max(1, chatPerSecond)));
+    }
+
+    private boolean isGroupChat(String chatId) {
+        // Group and channel chat IDs are negative, private chats are positive
+        return chatId != null && chatId.startsWith("-");
+    }
+
+    /**
+     * Reservation-based bucket: tokens may go negative, and the deficit is the time the
+     * caller has to wait for its reserved token. A pause moves the refill start into the future.
+     */
+    static final class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double tokensPerSecond, double capacity) {
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * Reserves a token and returns the wait until it is available, or -1 without
+         * reserving if that wait would exceed maxWait.
+         */
+        synchronized long tryReserve(long now, long maxWait) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+            }
+            double remaining = tokens - 1;
+            long refillWait = lastRefill - now;
+            long wait = remaining >= 0 ? refillWait : refillWait + (long) Math.ceil(-remaining / tokensPerNano);
+            if (wait > maxWait) {
+                return -1;
+            }
+            tokens = remaining;
+            return wait;
+        }
+
+        synchronized void release() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized void pauseUntil(long until) {
+            if (until > lastRefill) {
+                lastRefill = until;
+                tokens = Math.min(tokens, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.emenu.features.notification.delivery;
+
+import com.emenu.features.notification.cache.ApiKeyCache;
+import com.emenu.features.notification.dto.ApiKeySnapshot;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders a batch by weighted round robin across API keys, so a key that fills a partition
+ * does not delay every other key's messages behind its own. Each round a key may dispatch
+ * quantum x its delivery weight messages.
+ * <p>
+ * Rounds a key used in earlier polls are carried over and decay with the configured
+ * half-life: a key that has just sent a large backlog starts the next batch behind keys
+ * that have been quiet, instead of level with them. Messages are never held back across
+ * polls, because offsets are committed per batch once every message in it has an outcome.
+ * What is already dispatched from an earlier batch of the same partition therefore still
+ * goes first; recipient or chat keying ({@code notification.kafka.partitioning.*}) spreads
+ * a large key's backlog over all partitions so that it holds up a small share of each.
+ */
+@Component
+public class TenantFairScheduler {
+
+    private final ApiKeyCache apiKeyCache;
+    private final boolean enabled;
+    private final int quantum;
+    private final double halfLifeMs;
+    private final Cache<String, ServiceHistory> history;
+
+    public TenantFairScheduler(ApiKeyCache apiKeyCache,
+                               @Value("${notification.fairness.enabled:true}") boolean enabled,
+                               @Value("${notification.fairness.quantum:1}") int quantum,
+                               @Value("${notification.fairness.history-half-life-ms:30000}") long halfLifeMs,
+                               @Value("${notification.fairness.history-max-keys:10000}") long historyMaxKeys) {
+        this.apiKeyCache = apiKeyCache;
+        this.enabled = enabled;
+        this.quantum = Math.max(1, quantum);
+        this.halfLifeMs = Math.max(1, halfLifeMs);
+        // After ten half-lives the carried rounds are negligible
+        this.history = Caffeine.newBuilder()
+                .maximumSize(historyMaxKeys)
+                .expireAfterAccess(Duration.ofMillis(Math.max(1, halfLifeMs) * 10))
+                .build();
+    }
+
+    public List<NotificationMessage> order(List<NotificationMessage> messages) {
+        if (!enabled || messages.isEmpty()) {
+            return messages;
+        }
+
+        Map<String, TenantQueue> queues = new LinkedHashMap<>();
+        for (NotificationMessage message : messages) {
+            queues.computeIfAbsent(String.valueOf(message.getApiKeyValue()), this::newQueue)
+                  .messages.add(message);
+        }
+
+        long now = System.currentTimeMillis();
+        List<Slot> slots = new ArrayList<>(messages.size());
+        int tenant = 0;
+        for (Map.Entry<String, TenantQueue> entry : queues.entrySet()) {
+            TenantQueue queue = entry.getValue();
+            double carried = carriedRounds(entry.getKey(), now);
+            for (int i = 0; i < queue.messages.size(); i++) {
+                double round = carried + (i / queue.quantum) + 1;
+                slots.add(new Slot(round, tenant, i, queue.messages.get(i)));
+            }
+            recordRounds(entry.getKey(), (double) queue.messages.size() / queue.quantum, now);
+            tenant++;
+        }
+        if (queues.size() == 1) {
+            return messages;
+        }
+
+        slots.sort(Comparator.comparingDouble(Slot::round)
+                .thenComparingInt(Slot::tenant)
+                .thenComparingInt(Slot::position));
+        List<NotificationMessage> ordered = new ArrayList<>(slots.size());
+        slots.forEach(slot -> ordered.add(slot.message()));
+        return ordered;
+    }
+
+    // ===== SERVICE HISTORY =====
+
+    private double carriedRounds(String apiKeyValue, long now) {
+        ServiceHistory entry = history.getIfPresent(apiKeyValue);
+        return entry != null ? entry.decayedTo(now, halfLifeMs) : 0;
+    }
+
+    private void recordRounds(String apiKeyValue, double rounds, long now) {
+        history.asMap().compute(apiKeyValue, (key, entry) -> new ServiceHistory(
+                (entry != null ? entry.decayedTo(now, halfLifeMs) : 0) + rounds, now));
+    }
+
+    private TenantQueue newQueue(String apiKeyValue) {
+        int weight = apiKeyCache.get(apiKeyValue)
+            .map(ApiKeySnapshot::getDeliveryWeight)
+            .orElse(1);
+        return new TenantQueue(quantum * Math.max(1, weight));
+    }
+
+    private static final class TenantQueue {
+
+        private final int quantum;
+        private final List<NotificationMessage> messages = new ArrayList<>();
+
+        private TenantQueue(int quantum) {
+            this.quantum = quantum;
+        }
+    }
+
+    private record Slot(double round, int tenant, int position, NotificationMessage message) {
+    }
+
+    private record ServiceHistory(double rounds, long updatedAt) {
+
+        double decayedTo(long now, double halfLifeMs) {
+            return rounds * Math.pow(0.5, Math.max(0, now - updatedAt) / halfLifeMs);
+        }
+    }
+}
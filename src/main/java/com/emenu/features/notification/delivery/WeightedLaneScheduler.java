@@ -0,0 +1,200 @@
+package com.emenu.features.notification.delivery;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares each channel's delivery capacity between the priority lanes. A channel runs at most
+ * max-concurrent-batches batches at once; when batches of several lanes are waiting, free
+ * slots go to the lanes by smooth weighted round robin, so HIGH drains first but LOW still
+ * gets its share. Without contention a batch starts immediately.
+ */
+@Component
+public class WeightedLaneScheduler {
+
+    private final Map<NotificationChannel, ChannelGate> gates = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationPriority, Integer> weights = new EnumMap<>(NotificationPriority.class);
+
+    public WeightedLaneScheduler(MeterRegistry meterRegistry,
+                                 @Value("${notification.lanes.max-concurrent-batches:4}") int maxConcurrentBatches,
+                                 @Value("${notification.lanes.weight.high:8}") int highWeight,
+                                 @Value("${notification.lanes.weight.normal:3}") int normalWeight,
+                                 @Value("${notification.lanes.weight.low:1}") int lowWeight) {
+        weights.put(NotificationPriority.HIGH, Math.max(1, highWeight));
+        weights.put(NotificationPriority.NORMAL, Math.max(1, normalWeight));
+        weights.put(NotificationPriority.LOW, Math.max(1, lowWeight));
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            gates.put(channel, new ChannelGate(channel, Math.max(1, maxConcurrentBatches), meterRegistry));
+        }
+    }
+
+    /**
+     * Blocks until the lane may deliver a batch of the given size. The returned permit must
+     * be closed once the batch has been delivered.
+     */
+    public Permit acquire(NotificationChannel channel, NotificationPriority lane, int messages) throws InterruptedException {
+        return gates.get(channel).acquire(lane, messages);
+    }
+
+    /**
+     * Records how long a message waited in its lane, from being queued to delivery start.
+     */
+    public void recordQueueLatency(NotificationChannel channel, NotificationPriority lane, long millis) {
+        gates.get(channel).lanes.get(lane).latency.record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+    }
+
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final class ChannelGate {
+
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition granted = lock.newCondition();
+        private final Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+        private int inUse;
+
+        private ChannelGate(NotificationChannel channel, int capacity, MeterRegistry meterRegistry) {
+            this.capacity = capacity;
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                lanes.put(priority, new Lane(channel, priority, meterRegistry));
+            }
+        }
+
+        private Permit acquire(NotificationPriority priority, int messages) throws InterruptedException {
+            Lane lane = lanes.get(priority);
+            Ticket ticket = new Ticket(messages);
+            long start = System.nanoTime();
+
+            lock.lock();
+            try {
+                lane.waiting.addLast(ticket);
+                lane.waitingMessages.addAndGet(messages);
+                dispatch();
+                while (!ticket.granted) {
+                    try {
+                        granted.await();
+                    } catch (InterruptedException e) {
+                        if (ticket.granted) {
+                            release();
+                        } else {
+                            lane.waiting.remove(ticket);
+                            lane.waitingMessages.addAndGet(-messages);
+                        }
+                        throw e;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            lane.wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return this::releaseLocked;
+        }
+
+        private void releaseLocked() {
+            lock.lock();
+            try {
+                release();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release() {
+            inUse--;
+            dispatch();
+        }
+
+        /**
+         * Hands free slots to waiting tickets, picking the lane by smooth weighted round robin
+         * among the lanes that have waiters. Called with the lock held.
+         */
+        private void dispatch() {
+            boolean signalled = false;
+            while (inUse < capacity) {
+                Lane next = null;
+                int totalWeight = 0;
+                for (Lane lane : lanes.values()) {
+                    if (lane.waiting.isEmpty()) {
+                        continue;
+                    }
+                    lane.currentWeight += lane.weight;
+                    totalWeight += lane.weight;
+                    if (next == null || lane.currentWeight > next.currentWeight) {
+                        next = lane;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                next.currentWeight -= totalWeight;
+
+                Ticket ticket = next.waiting.pollFirst();
+                next.waitingMessages.addAndGet(-ticket.messages);
+                ticket.granted = true;
+                inUse++;
+                signalled = true;
+            }
+            if (signalled) {
+                granted.signalAll();
+            }
+        }
+    }
+
+    private final class Lane {
+
+        private final int weight;
+        private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        private final AtomicLong waitingMessages = new AtomicLong();
+        private final Timer wait;
+        private final Timer latency;
+        private int currentWeight;
+
+        private Lane(NotificationChannel channel, NotificationPriority priority, MeterRegistry meterRegistry) {
+            this.weight = weights.get(priority);
+            String channelTag = channel.name().toLowerCase();
+            String laneTag = priority.name().toLowerCase();
+            Gauge.builder("notification.lane.waiting", waitingMessages, AtomicLong::get)
+                    .description("Messages waiting for a delivery slot")
+                    .tag("channel", channelTag)
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            this.wait = Timer.builder("notification.lane.wait")
+                    .description("Time a batch waited for a delivery slot")
+                    .tag("channel", channelTag)
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            this.latency = Timer.builder("notification.lane.latency")
+                    .description("Time from queueing a message to the start of its delivery")
+                    .tag("channel", channelTag)
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Ticket {
+
+        private final int messages;
+        private boolean granted;
+
+        private Ticket(int messages) {
+            this.messages = messages;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.emenu.features.notification.dto;
+
+import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A validated send request as written to the ingest journal, before its recipients are
+ * expanded into notification logs. Log ids are assigned up front so the 202 response can
+ * return them. The request is journaled without its channel credentials; the sender
+ * profile holding them is resolved on accept and referenced instead.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcceptedNotification {
+
+    private String batchId;
+    private String apiKeyValue;
+    private String systemName;
+    private List<UUID> logIds;
+    private SendNotificationRequest request;
+    // Null for entries journaled before profile references, whose request still has credentials
+    private UUID senderProfileId;
+    private Integer senderProfileVersion;
+    private LocalDateTime acceptedAt;
+}
@@ -0,0 +1,57 @@
+package com.emenu.features.notification.dto;
+
+import com.emenu.features.notification.models.ApiKey;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Immutable view of an API key as used on the send path. Usage counters are not part of
+ * the snapshot; quotas are checked and counted by the in-memory ApiKeyUsageTracker, which
+ * writes the increments back every flush interval. Overshoot of the monthly limit is
+ * bounded by what all instances accept within one flush interval.
+ */
+@Value
+@Builder
+public class ApiKeySnapshot {
+
+    UUID id;
+    String apiKeyValue;
+    String systemName;
+    boolean active;
+    boolean neverExpires;
+    LocalDate startDate;
+    LocalDate endDate;
+    Integer monthlyLimit;
+    int deliveryWeight;
+
+    public static ApiKeySnapshot from(ApiKey apiKey) {
+        return ApiKeySnapshot.builder()
+            .id(apiKey.getId())
+            .apiKeyValue(apiKey.getApiKeyValue())
+            .systemName(apiKey.getSystemName())
+            .active(Boolean.TRUE.equals(apiKey.getIsActive()))
+            .neverExpires(Boolean.TRUE.equals(apiKey.getNeverExpires()))
+            .startDate(apiKey.getStartDate())
+            .endDate(apiKey.getEndDate())
+            .monthlyLimit(apiKey.getMonthlyLimit())
+            .deliveryWeight(apiKey.getDeliveryWeight() != null ? Math.max(1, apiKey.getDeliveryWeight()) : 1)
+            .build();
+    }
+
+    public boolean isExpired() {
+        if (neverExpires) {
+            return false;
+        }
+
+        LocalDate today = LocalDate.now();
+        return (endDate != null && today.isAfter(endDate))
+            || (startDate != null && today.isBefore(startDate));
+    }
+
+    public boolean isUnlimited() {
+        return monthlyLimit == null || monthlyLimit <= 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.emenu.features.notification.dto;
+
+import com.emenu.enums.notification.NotificationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryResult {
+
+    private UUID logId;
+    private NotificationStatus status;
+    private String response;
+    private String errorMessage;
+    private LocalDateTime sentAt;
+    // Only meaningful for failures: false if redelivering cannot succeed, e.g. an invalid recipient
+    private boolean retryable;
+
+    public static DeliveryResult sent(UUID logId, String response) {
+        return DeliveryResult.builder()
+            .logId(logId)
+            .status(NotificationStatus.SENT)
+            .response(response)
+            .sentAt(LocalDateTime.now())
+            .build();
+    }
+
+    public static DeliveryResult failed(UUID logId, String errorMessage) {
+        return DeliveryResult.builder()
+            .logId(logId)
+            .status(NotificationStatus.FAILED)
+            .errorMessage(errorMessage)
+            .retryable(true)
+            .build();
+    }
+
+    public static DeliveryResult failedPermanently(UUID logId, String errorMessage) {
+        return DeliveryResult.builder()
+            .logId(logId)
+            .status(NotificationStatus.FAILED)
+            .errorMessage(errorMessage)
+            .retryable(false)
+            .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.emenu.features.notification.dto;
 
 import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
 import com.emenu.enums.notification.NotificationType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,11 +23,17 @@ public class NotificationMessage implements Serializable {
     private String systemName;
     private NotificationChannel channel;
     private NotificationType type;
+    private NotificationPriority priority;
     private String recipient;
     private String subject;
     private String message;
     private Integer retryCount;
+
+    // Sender profile holding the channel credentials
+    private UUID senderProfileId;
+    private Integer senderProfileVersion;
     
+    // Inline credentials, only set on messages queued before sender profiles
     // Telegram Config
     private String telegramBotToken;
     
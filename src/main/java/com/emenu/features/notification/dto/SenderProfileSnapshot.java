@@ -0,0 +1,76 @@
+package com.emenu.features.notification.dto;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.delivery.SmtpTransportPool;
+import com.emenu.features.notification.models.SenderProfile;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of a sender profile, shared by every message that references it.
+ */
+@Value
+@Builder
+public class SenderProfileSnapshot {
+
+    UUID id;
+    int profileVersion;
+    NotificationChannel channel;
+    String fingerprint;
+
+    String telegramBotToken;
+
+    String emailFrom;
+    String emailSmtpHost;
+    Integer emailSmtpPort;
+    String emailSmtpUsername;
+    String emailSmtpPassword;
+    boolean emailUseSSL;
+    boolean emailUseTLS;
+
+    public static SenderProfileSnapshot from(SenderProfile profile) {
+        return SenderProfileSnapshot.builder()
+            .id(profile.getId())
+            .profileVersion(profile.getProfileVersion())
+            .channel(profile.getChannel())
+            .fingerprint(profile.getFingerprint())
+            .telegramBotToken(profile.getTelegramBotToken())
+            .emailFrom(profile.getEmailFrom())
+            .emailSmtpHost(profile.getEmailSmtpHost())
+            .emailSmtpPort(profile.getEmailSmtpPort())
+            .emailSmtpUsername(profile.getEmailSmtpUsername())
+            .emailSmtpPassword(profile.getEmailSmtpPassword())
+            .emailUseSSL(Boolean.TRUE.equals(profile.getEmailUseSSL()))
+            .emailUseTLS(Boolean.TRUE.equals(profile.getEmailUseTLS()))
+            .build();
+    }
+
+    /**
+     * Profile for a message queued before sender profiles, which still carries its
+     * credentials inline.
+     */
+    public static SenderProfileSnapshot inline(NotificationMessage message) {
+        return SenderProfileSnapshot.builder()
+            .channel(message.getChannel())
+            .telegramBotToken(message.getTelegramBotToken())
+            .emailFrom(message.getEmailFrom())
+            .emailSmtpHost(message.getEmailSmtpHost())
+            .emailSmtpPort(message.getEmailSmtpPort())
+            .emailSmtpUsername(message.getEmailSmtpUsername())
+            .emailSmtpPassword(message.getEmailSmtpPassword())
+            .emailUseSSL(Boolean.TRUE.equals(message.getEmailUseSSL()))
+            .emailUseTLS(Boolean.TRUE.equals(message.getEmailUseTLS()))
+            .build();
+    }
+
+    public SmtpTransportPool.SmtpKey smtpKey() {
+        return new SmtpTransportPool.SmtpKey(
+            emailSmtpHost,
+            emailSmtpPort != null ? emailSmtpPort : 587,
+            emailSmtpUsername,
+            emailUseSSL,
+            emailUseTLS);
+    }
+}
@@ -0,0 +1,17 @@
+package com.emenu.features.notification.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Items are validated one by one so that an invalid item is reported in the response
+ * instead of rejecting the whole request.
+ */
+@Data
+public class BulkSendNotificationRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    private List<SendNotificationRequest> items;
+}
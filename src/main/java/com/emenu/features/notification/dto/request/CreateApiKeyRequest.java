@@ -1,6 +1,8 @@
 package com.emenu.features.notification.dto.request;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -28,4 +30,8 @@ public class CreateApiKeyRequest {
     private Boolean neverExpires = true;
     
     private Integer monthlyLimit; // null = unlimited
+
+    @Min(value = 1, message = "Delivery weight must be at least 1")
+    @Max(value = 100, message = "Delivery weight must be at most 100")
+    private Integer deliveryWeight = 1;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.emenu.features.notification.dto.request;
+
+import com.emenu.enums.notification.NotificationChannel;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CreateTemplateRequest {
+    
+    @NotBlank(message = "Template name is required")
+    private String name;
+    
+    @NotNull(message = "Channel is required (TELEGRAM or EMAIL)")
+    private NotificationChannel channel;
+    
+    private String subject;
+    
+    @NotBlank(message = "Template body is required")
+    private String body;
+}
@@ -1,12 +1,15 @@
 package com.emenu.features.notification.dto.request;
 
 import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
 import com.emenu.enums.notification.NotificationType;
 import jakarta.validation.Valid;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.Map;
+import java.util.UUID;
+
 @Data
 public class SendNotificationRequest {
     
@@ -15,12 +18,19 @@ public class SendNotificationRequest {
     
     @NotNull(message = "Type is required (ALERT, INFO, WARNING, ERROR, SUCCESS)")
     private NotificationType type;
+
+    // Defaults to HIGH for ALERT and ERROR, NORMAL otherwise; LOW for campaigns
+    private NotificationPriority priority;
     
     private String subject;
     
-    @NotBlank(message = "Message is required")
+    // Required unless templateId is set
     private String message;
     
+    private UUID templateId;
+    
+    private Map<String, String> variables;
+    
     @Valid
     private TelegramConfig telegram;
     
@@ -1,6 +1,8 @@
 package com.emenu.features.notification.dto.request;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -28,4 +30,8 @@ public class UpdateApiKeyRequest {
     private Boolean neverExpires;
     
     private Integer monthlyLimit;
+
+    @Min(value = 1, message = "Delivery weight must be at least 1")
+    @Max(value = 100, message = "Delivery weight must be at most 100")
+    private Integer deliveryWeight;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.emenu.features.notification.dto.request;
+
+import lombok.Data;
+
+@Data
+public class UpdateTemplateRequest {
+    
+    private String name;
+    
+    private String subject;
+    
+    private String body;
+    
+    private Boolean isActive;
+}
@@ -31,6 +31,8 @@ public class ApiKeyResponse extends BaseAuditResponse {
     private Boolean neverExpires;
     
     private Integer monthlyLimit;
+
+    private Integer deliveryWeight;
     
     private Integer currentUsage;
     
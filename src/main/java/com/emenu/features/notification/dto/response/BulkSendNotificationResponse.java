@@ -0,0 +1,44 @@
+package com.emenu.features.notification.dto.response;
+
+import com.emenu.enums.notification.NotificationChannel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSendNotificationResponse {
+
+    private Integer totalItems;
+
+    private Integer acceptedItems;
+
+    private Integer rejectedItems;
+
+    private Integer totalRecipients;
+
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        private Integer index;
+
+        private String batchId;
+
+        private List<UUID> logIds;
+
+        private NotificationChannel channel;
+
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.emenu.features.notification.dto.response;
+
+import com.emenu.enums.notification.NotificationChannel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayResponse {
+
+    private NotificationChannel channel;
+    private String deadLetterTopic;
+    // Base delivery topic; each message returns to the topic of its priority lane
+    private String targetTopic;
+    private int replayed;
+    private int skipped;
+}
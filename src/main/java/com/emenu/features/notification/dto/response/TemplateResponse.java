@@ -0,0 +1,27 @@
+package com.emenu.features.notification.dto.response;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.shared.dto.BaseAuditResponse;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.Set;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class TemplateResponse extends BaseAuditResponse {
+    
+    private String name;
+    
+    private NotificationChannel channel;
+    
+    private String subject;
+    
+    private String body;
+    
+    private Integer templateVersion;
+    
+    private Boolean isActive;
+    
+    private Set<String> variables;
+}
@@ -0,0 +1,384 @@
+package com.emenu.features.notification.ingest;
+
+import com.emenu.features.notification.dto.AcceptedNotification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local journal for accepted send requests. Appends from all request threads are
+ * written by a single writer thread, which forces the file once per group of appends, so a
+ * burst of requests shares one fsync instead of paying one each.
+ * <p>
+ * Entries are one JSON document per line, in segment files that roll at segment-max-bytes.
+ * Handling an entry, whether it was expanded or discarded after a rollback, appends a
+ * tombstone line with its batch id to the current segment. Closed segments are deleted
+ * oldest first once every entry in them has been handled, so a tombstone always outlives the
+ * entry it refers to. Entries left over from a previous run without a tombstone are returned
+ * by {@link #recover()} so they can be replayed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IngestJournal {
+
+    private static final String SEGMENT_PREFIX = "ingest-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Entries are JSON objects, so a line starting with this is never an entry
+    private static final String TOMBSTONE_PREFIX = "-";
+
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<PendingAppend> appends = new LinkedBlockingQueue<>();
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final List<Segment> recovered = new ArrayList<>();
+    private volatile boolean recoveryPending;
+    private volatile boolean running;
+    private Thread writerThread;
+    private Segment current;
+    private long nextSegmentId;
+
+    @Value("${notification.ingest.journal-dir:./data/ingest-journal}")
+    private String journalDir;
+
+    @Value("${notification.ingest.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    @Value("${notification.ingest.max-group-size:1000}")
+    private int maxGroupSize;
+
+    @Value("${notification.ingest.append-timeout-ms:5000}")
+    private long appendTimeoutMs;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(IngestJournal::isSegmentFile).sorted().toList()) {
+                Segment segment = new Segment(segmentId(file), file, null);
+                segment.closed = true;
+                segments.put(segment.id, segment);
+                recovered.add(segment);
+                nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+            }
+        }
+
+        recoveryPending = !recovered.isEmpty();
+        current = openSegment();
+        running = true;
+        writerThread = new Thread(this::writeLoop, "ingest-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Ingest journal opened at {} ({} segments to recover)", dir.toAbsolutePath(), recovered.size());
+    }
+
+    /**
+     * Appends the entry and blocks until it has been forced to disk.
+     *
+     * @return the id of the segment holding the entry, for its {@link JournalEntry}
+     */
+    public long append(AcceptedNotification accepted) {
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(accepted) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize accepted notification", e);
+        }
+
+        PendingAppend append = new PendingAppend(line, true);
+        appends.add(append);
+        return await(append);
+    }
+
+    /**
+     * Records that the entry has been expanded. The tombstone is written asynchronously;
+     * if it is lost in a crash, replay finds the batch's logs and skips the entry.
+     */
+    public void markProcessed(JournalEntry entry) {
+        appends.add(tombstone(entry));
+        release(entry.segmentId());
+    }
+
+    /**
+     * Records that the entry must never be expanded, e.g. because the transaction that
+     * accepted it rolled back. Blocks until the tombstone has been forced to disk.
+     */
+    public void discard(JournalEntry entry) {
+        PendingAppend append = tombstone(entry);
+        appends.add(append);
+        try {
+            await(append);
+        } finally {
+            release(entry.segmentId());
+        }
+    }
+
+    /**
+     * Reads every entry left over from a previous run that has no tombstone. Each returned
+     * entry must be passed to {@link #markProcessed(JournalEntry)} once handled.
+     */
+    public List<JournalEntry> recover() {
+        Set<String> tombstones = new HashSet<>();
+        Map<Segment, List<JournalEntry>> entriesBySegment = new LinkedHashMap<>();
+        for (Segment segment : recovered) {
+            List<JournalEntry> entries = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(segment.path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (line.startsWith(TOMBSTONE_PREFIX)) {
+                        tombstones.add(line.substring(TOMBSTONE_PREFIX.length()));
+                        continue;
+                    }
+                    try {
+                        entries.add(new JournalEntry(segment.id, objectMapper.readValue(line, AcceptedNotification.class)));
+                    } catch (IOException e) {
+                        // A torn write at the end of a segment from a crash
+                        log.warn("Skipping unreadable ingest journal entry in {}: {}", segment.path, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Failed to read ingest journal segment {}: {}", segment.path, e.getMessage());
+                // Keep the segment and everything after it until the next restart
+                segment.outstanding.set(1);
+                continue;
+            }
+            entriesBySegment.put(segment, entries);
+        }
+
+        List<JournalEntry> pending = new ArrayList<>();
+        entriesBySegment.forEach((segment, entries) -> {
+            entries.removeIf(entry -> tombstones.contains(entry.accepted().getBatchId()));
+            segment.outstanding.set(entries.size());
+            pending.addAll(entries);
+        });
+        recovered.clear();
+        recoveryPending = false;
+        deleteHandledSegments();
+        return pending;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        segments.values().forEach(Segment::closeChannel);
+    }
+
+    // ===== WRITER =====
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>(maxGroupSize);
+        while (running || !appends.isEmpty()) {
+            try {
+                PendingAppend first = appends.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                appends.drainTo(group, maxGroupSize - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                if (running) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Ingest journal writer interrupted");
+                }
+                running = false;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void writeGroup(List<PendingAppend> group) {
+        Segment segment = current;
+        try {
+            for (PendingAppend append : group) {
+                ByteBuffer buffer = ByteBuffer.wrap(append.line);
+                while (buffer.hasRemaining()) {
+                    segment.size += segment.channel.write(buffer);
+                }
+            }
+            segment.channel.force(false);
+        } catch (IOException e) {
+            log.error("Failed to write {} entries to the ingest journal: {}", group.size(), e.getMessage());
+            group.forEach(append -> append.future.completeExceptionally(e));
+            return;
+        }
+
+        segment.outstanding.addAndGet((int) group.stream().filter(append -> append.entry).count());
+        group.forEach(append -> append.future.complete(segment.id));
+
+        if (segment.size >= segmentMaxBytes) {
+            roll();
+        }
+    }
+
+    private void roll() {
+        Segment previous = current;
+        try {
+            current = openSegment();
+        } catch (IOException e) {
+            log.error("Failed to roll the ingest journal, keeping segment {}: {}", previous.id, e.getMessage());
+            return;
+        }
+        previous.closed = true;
+        previous.closeChannel();
+        deleteHandledSegments();
+    }
+
+    // ===== HELPER METHODS =====
+
+    private PendingAppend tombstone(JournalEntry entry) {
+        String line = TOMBSTONE_PREFIX + entry.accepted().getBatchId() + "\n";
+        return new PendingAppend(line.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    private long await(PendingAppend append) {
+        try {
+            return append.future.get(appendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the ingest journal", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to write the ingest journal", e);
+        }
+    }
+
+    private void release(long segmentId) {
+        Segment segment = segments.get(segmentId);
+        if (segment != null && segment.outstanding.decrementAndGet() <= 0 && segment.closed) {
+            deleteHandledSegments();
+        }
+    }
+
+    /**
+     * Deletes closed segments from the oldest up to the first with unhandled entries. Later
+     * segments may hold the tombstones of entries in that one, so they are kept too.
+     */
+    private synchronized void deleteHandledSegments() {
+        if (recoveryPending) {
+            return;
+        }
+        for (Segment segment : segments.values()) {
+            if (!segment.closed || segment.outstanding.get() > 0) {
+                return;
+            }
+            delete(segment);
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        long id = nextSegmentId++;
+        Path path = Paths.get(journalDir, String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        Segment segment = new Segment(id, path, channel);
+        segment.size = channel.size();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void delete(Segment segment) {
+        if (!segment.deleted.compareAndSet(false, true)) {
+            return;
+        }
+        segments.remove(segment.id);
+        segment.closeChannel();
+        try {
+            Files.deleteIfExists(segment.path);
+            log.debug("Deleted processed ingest journal segment {}", segment.path);
+        } catch (IOException e) {
+            log.warn("Failed to delete ingest journal segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    public record JournalEntry(long segmentId, AcceptedNotification accepted) {
+    }
+
+    private static final class PendingAppend {
+        private final byte[] line;
+        // False for tombstones, which do not need to be handled
+        private final boolean entry;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        private PendingAppend(byte[] line, boolean entry) {
+            this.line = line;
+            this.entry = entry;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private volatile boolean closed;
+        private long size;
+
+        private Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private void closeChannel() {
+            if (channel != null && channel.isOpen()) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close ingest journal segment {}: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.emenu.features.notification.ingest;
+
+import com.emenu.features.notification.dto.AcceptedNotification;
+import com.emenu.features.notification.repository.NotificationLogRepository;
+import com.emenu.features.notification.service.NotificationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Second stage of the asynchronous send path. Accepted requests are journaled on the request
+ * thread; expanding them into logs and outbox rows happens here on a bounded worker pool.
+ * Entries that fail are retried on a schedule, and anything still in the journal after a
+ * restart is replayed on startup.
+ */
+@Component
+@Slf4j
+public class IngestPipeline {
+
+    private final IngestJournal journal;
+    private final NotificationService notificationService;
+    private final NotificationLogRepository logRepository;
+    private final Queue<IngestJournal.JournalEntry> retries = new ConcurrentLinkedQueue<>();
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${notification.ingest.threads:4}")
+    private int threads;
+
+    @Value("${notification.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    public IngestPipeline(IngestJournal journal,
+                          @Lazy NotificationService notificationService,
+                          NotificationLogRepository logRepository) {
+        this.journal = journal;
+        this.notificationService = notificationService;
+        this.logRepository = logRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-ingest-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    /**
+     * Makes the request durable and schedules its expansion. Returns once the journal entry
+     * has been forced to disk. Inside a transaction the expansion only starts after commit;
+     * if the transaction rolls back, releasing the usage reservation and idempotency key, a
+     * tombstone is journaled so the entry is never replayed. A crash after the journal write
+     * but before the commit outcome is recorded still leaves the entry to be replayed.
+     */
+    public void accept(AcceptedNotification accepted) {
+        long segmentId = journal.append(accepted);
+        IngestJournal.JournalEntry entry = new IngestJournal.JournalEntry(segmentId, accepted);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(entry);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    log.info("Discarding accepted batch {} after rollback", accepted.getBatchId());
+                    try {
+                        journal.discard(entry);
+                    } catch (Exception e) {
+                        log.error("Failed to journal the discard of batch {}: {}", accepted.getBatchId(), e.getMessage());
+                    }
+                } else {
+                    submit(entry);
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        List<IngestJournal.JournalEntry> entries = journal.recover();
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        log.info("Replaying {} accepted notification batches from the ingest journal", entries.size());
+        for (IngestJournal.JournalEntry entry : entries) {
+            if (logRepository.existsByBatchId(entry.accepted().getBatchId())) {
+                journal.markProcessed(entry);
+            } else {
+                submit(entry);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.ingest.retry-interval-ms:5000}")
+    public void retryFailed() {
+        int count = retries.size();
+        for (int i = 0; i < count; i++) {
+            IngestJournal.JournalEntry entry = retries.poll();
+            if (entry == null) {
+                break;
+            }
+            submit(entry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        if (!retries.isEmpty()) {
+            log.warn("{} accepted batches left for replay on next startup", retries.size());
+        }
+    }
+
+    // ===== HELPER METHODS =====
+
+    private void submit(IngestJournal.JournalEntry entry) {
+        try {
+            executor.execute(() -> expand(entry));
+        } catch (RejectedExecutionException e) {
+            log.warn("Ingest pipeline is full, deferring batch {}", entry.accepted().getBatchId());
+            retries.add(entry);
+        }
+    }
+
+    private void expand(IngestJournal.JournalEntry entry) {
+        try {
+            notificationService.expandAcceptedBatch(entry.accepted());
+            journal.markProcessed(entry);
+        } catch (Exception e) {
+            log.error("Failed to expand accepted batch {}, will retry: {}",
+                    entry.accepted().getBatchId(), e.getMessage());
+            retries.add(entry);
+        }
+    }
+}
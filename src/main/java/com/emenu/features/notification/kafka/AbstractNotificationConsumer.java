@@ -0,0 +1,291 @@
+package com.emenu.features.notification.kafka;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
+import com.emenu.enums.notification.NotificationStatus;
+import com.emenu.features.notification.cache.SenderProfileCache;
+import com.emenu.features.notification.delivery.DeliveryStatusWriter;
+import com.emenu.features.notification.delivery.TenantFairScheduler;
+import com.emenu.features.notification.delivery.WeightedLaneScheduler;
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.metrics.NotificationMetrics;
+import com.emenu.features.notification.repository.NotificationLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Shared batch flow for the delivery consumers: decode the records, claim all referenced
+ * logs in one conditional update, load their sender profiles, order each partition fairly
+ * across API keys, deliver, forward failures to
+ * their retry tier or dead-letter topic, then hand the outcomes to the write-behind
+ * {@link DeliveryStatusWriter}. Offsets are acknowledged once the outcomes are written.
+ */
+@Slf4j
+public abstract class AbstractNotificationConsumer {
+
+    protected final NotificationLogRepository logRepository;
+    protected final NotificationMessageCodec messageCodec;
+    protected final DeliveryStatusWriter statusWriter;
+    protected final SenderProfileCache profileCache;
+    protected final NotificationRetryRouter retryRouter;
+    protected final RetryPartitionPauser partitionPauser;
+    protected final WeightedLaneScheduler laneScheduler;
+    protected final TenantFairScheduler fairScheduler;
+    protected final NotificationMetrics metrics;
+
+    @Value("${notification.retry.forward-timeout-ms:10000}")
+    private long forwardTimeoutMs;
+
+    @Value("${notification.retry.redelivery-backoff-ms:1000}")
+    private long redeliveryBackoffMs;
+
+    protected AbstractNotificationConsumer(NotificationLogRepository logRepository,
+                                           NotificationMessageCodec messageCodec,
+                                           DeliveryStatusWriter statusWriter,
+                                           SenderProfileCache profileCache,
+                                           NotificationRetryRouter retryRouter,
+                                           RetryPartitionPauser partitionPauser,
+                                           WeightedLaneScheduler laneScheduler,
+                                           TenantFairScheduler fairScheduler,
+                                           NotificationMetrics metrics) {
+        this.logRepository = logRepository;
+        this.messageCodec = messageCodec;
+        this.statusWriter = statusWriter;
+        this.profileCache = profileCache;
+        this.retryRouter = retryRouter;
+        this.partitionPauser = partitionPauser;
+        this.laneScheduler = laneScheduler;
+        this.fairScheduler = fairScheduler;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Deliver every message and return one result per message. Messages are grouped by
+     * source partition, in offset order.
+     */
+    protected abstract List<DeliveryResult> deliverAll(Map<Integer, List<NotificationMessage>> messagesByPartition);
+
+    protected void processBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        BatchOutcome outcome = deliverBatch(records);
+        if (outcome.forwarded()) {
+            outcome.written().whenComplete((ignored, error) -> acknowledgment.acknowledge());
+        } else {
+            redeliver(outcome, 0, acknowledgment);
+        }
+    }
+
+    /**
+     * Batch flow for the retry tiers: delivers every record that is due, from any partition,
+     * and commits it. Each partition that still holds records that are not due is sought
+     * back to the first of them and paused until it is due, without blocking the listener
+     * thread or the other partitions and tiers of the listener.
+     */
+    protected void processDelayedBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment,
+                                       Consumer<?, ?> consumer, String listenerId) {
+        long now = System.currentTimeMillis();
+        List<ConsumerRecord<String, byte[]>> due = new ArrayList<>(records.size());
+        Map<TopicPartition, ConsumerRecord<String, byte[]>> firstNotDue = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (firstNotDue.containsKey(partition)) {
+                continue;
+            }
+            if (retryRouter.dueAt(record) <= now) {
+                due.add(record);
+            } else {
+                firstNotDue.put(partition, record);
+            }
+        }
+        if (firstNotDue.isEmpty()) {
+            processBatch(records, acknowledgment);
+            return;
+        }
+
+        if (!due.isEmpty()) {
+            BatchOutcome outcome = deliverBatch(due);
+            if (!outcome.forwarded()) {
+                redeliver(outcome, 0, acknowledgment);
+                return;
+            }
+            awaitWritten(outcome);
+            // Not acknowledged: that would also commit the records handed back below
+            consumer.commitSync(nextOffsets(due));
+        }
+        firstNotDue.forEach((partition, record) -> {
+            consumer.seek(partition, record.offset());
+            partitionPauser.pauseUntil(listenerId, partition, retryRouter.dueAt(record));
+        });
+    }
+
+    private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(List<ConsumerRecord<String, byte[]>> records) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            offsets.merge(new TopicPartition(record.topic(), record.partition()),
+                new OffsetAndMetadata(record.offset() + 1),
+                (a, b) -> a.offset() >= b.offset() ? a : b);
+        }
+        return offsets;
+    }
+
+    private BatchOutcome deliverBatch(List<ConsumerRecord<String, byte[]>> records) {
+        CompletableFuture<Void> written = null;
+        boolean forwarded = true;
+        try {
+            Map<Integer, List<NotificationMessage>> messagesByPartition = decode(records);
+            Set<UUID> deliverable = markProcessing(messagesByPartition);
+
+            messagesByPartition.values().forEach(messages ->
+                messages.removeIf(message -> !deliverable.contains(message.getLogId())));
+            messagesByPartition.values().removeIf(List::isEmpty);
+
+            if (!messagesByPartition.isEmpty()) {
+                messagesByPartition.values().forEach(profileCache::preload);
+                messagesByPartition.replaceAll((partition, messages) -> fairScheduler.order(messages));
+                List<DeliveryResult> results;
+                try (WeightedLaneScheduler.Permit permit = acquireLane(messagesByPartition)) {
+                    results = deliverAll(messagesByPartition);
+                }
+                forwarded = forwardFailures(messagesByPartition, results);
+                written = statusWriter.submit(results);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting to deliver a batch of {} records", records.size());
+            forwarded = false;
+        } catch (Exception e) {
+            log.error("Error processing notification batch of {} records: {}", records.size(), e.getMessage(), e);
+            // Nothing may have been delivered or forwarded; acking would drop the batch
+            forwarded = false;
+        }
+        if (written == null) {
+            // Nothing to write, but still queue behind earlier batches so offsets commit in order
+            written = statusWriter.submit(List.of());
+        }
+        return new BatchOutcome(written, forwarded);
+    }
+
+    /**
+     * Waits for a delivery slot in the batch's lane. A batch from a retry tier may mix lanes
+     * and is scheduled in the highest of them.
+     */
+    private WeightedLaneScheduler.Permit acquireLane(Map<Integer, List<NotificationMessage>> messagesByPartition)
+            throws InterruptedException {
+        NotificationChannel channel = null;
+        NotificationPriority lane = NotificationPriority.LOW;
+        int count = 0;
+        for (List<NotificationMessage> messages : messagesByPartition.values()) {
+            for (NotificationMessage message : messages) {
+                channel = message.getChannel();
+                NotificationPriority priority = laneOf(message);
+                if (priority.ordinal() < lane.ordinal()) {
+                    lane = priority;
+                }
+                count++;
+            }
+        }
+        return laneScheduler.acquire(channel, lane, count);
+    }
+
+    private static NotificationPriority laneOf(NotificationMessage message) {
+        return message.getPriority() != null ? message.getPriority() : NotificationPriority.NORMAL;
+    }
+
+    /**
+     * Publishes every failed message to its retry tier or the dead-letter topic and waits for
+     * the broker acks. Returns false if any of them could not be published.
+     */
+    private boolean forwardFailures(Map<Integer, List<NotificationMessage>> messagesByPartition,
+                                    List<DeliveryResult> results) {
+        Map<UUID, NotificationMessage> messagesById = new HashMap<>();
+        messagesByPartition.values().forEach(messages ->
+            messages.forEach(message -> messagesById.put(message.getLogId(), message)));
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (DeliveryResult result : results) {
+            if (result.getStatus() == NotificationStatus.FAILED) {
+                futures.add(retryRouter.forward(messagesById.get(result.getLogId()), result));
+            }
+        }
+        if (futures.isEmpty()) {
+            return true;
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to forward {} failed notifications for retry: {}", futures.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Seeks back to the given record once the batch outcomes are written, so failures whose
+     * retry could not be published are attempted again. Sent messages are not claimed again.
+     */
+    private void redeliver(BatchOutcome outcome, int index, Acknowledgment acknowledgment) {
+        awaitWritten(outcome);
+        acknowledgment.nack(index, Duration.ofMillis(redeliveryBackoffMs));
+    }
+
+    private void awaitWritten(BatchOutcome outcome) {
+        try {
+            outcome.written().join();
+        } catch (Exception e) {
+            log.warn("Delivery results not written before redelivery: {}", e.getMessage());
+        }
+    }
+
+    private Map<Integer, List<NotificationMessage>> decode(List<ConsumerRecord<String, byte[]>> records) {
+        Map<Integer, List<NotificationMessage>> messagesByPartition = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                NotificationMessage message = messageCodec.decode(record.value());
+                long queuedMs = now - retryRouter.dueAt(record);
+                laneScheduler.recordQueueLatency(message.getChannel(), laneOf(message), queuedMs);
+                metrics.recordMillis(NotificationMetrics.Stage.QUEUE_WAIT, message, queuedMs);
+                messagesByPartition.computeIfAbsent(record.partition(), p -> new ArrayList<>()).add(message);
+            } catch (Exception e) {
+                log.error("Skipping undecodable record - Partition: {}, Offset: {}: {}",
+                         record.partition(), record.offset(), e.getMessage());
+            }
+        }
+        return messagesByPartition;
+    }
+
+    private Set<UUID> markProcessing(Map<Integer, List<NotificationMessage>> messagesByPartition) {
+        Set<UUID> logIds = messagesByPartition.values().stream()
+            .flatMap(List::stream)
+            .map(NotificationMessage::getLogId)
+            .collect(Collectors.toSet());
+
+        Set<UUID> claimed = logRepository.claimForDelivery(logIds);
+
+        logIds.stream()
+            .filter(logId -> !claimed.contains(logId))
+            .forEach(logId -> log.warn("Notification log not found or already sent: {}", logId));
+        return claimed;
+    }
+
+    private record BatchOutcome(CompletableFuture<Void> written, boolean forwarded) {
+    }
+}
@@ -1,224 +1,236 @@
 package com.emenu.features.notification.kafka;
 
-import com.emenu.enums.notification.NotificationStatus;
+import com.emenu.features.notification.cache.SenderProfileCache;
+import com.emenu.features.notification.delivery.DeliveryStatusWriter;
+import com.emenu.features.notification.delivery.TenantFairScheduler;
+import com.emenu.features.notification.delivery.WeightedLaneScheduler;
+import com.emenu.features.notification.delivery.SmtpTransportPool;
+import com.emenu.features.notification.dto.DeliveryResult;
 import com.emenu.features.notification.dto.NotificationMessage;
-import com.emenu.features.notification.models.NotificationLog;
+import com.emenu.features.notification.metrics.NotificationMetrics;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
 import com.emenu.features.notification.repository.NotificationLogRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.emenu.features.notification.template.TemplateRenderer;
+import jakarta.mail.AuthenticationFailedException;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.MimeMessage;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Properties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class EmailNotificationConsumer {
+public class EmailNotificationConsumer extends AbstractNotificationConsumer {
+
+    private static final String RETRY_LISTENER_ID = "email-retries";
+
+    private final TaskExecutor deliveryExecutor;
+    private final SmtpTransportPool transportPool;
+    private final TemplateRenderer templateRenderer;
+
+    public EmailNotificationConsumer(NotificationLogRepository logRepository,
+                                     NotificationMessageCodec messageCodec,
+                                     DeliveryStatusWriter statusWriter,
+                                     SenderProfileCache profileCache,
+                                     NotificationRetryRouter retryRouter,
+                                     RetryPartitionPauser partitionPauser,
+                                     WeightedLaneScheduler laneScheduler,
+                                     TenantFairScheduler fairScheduler,
+                                     NotificationMetrics metrics,
+                                     @Qualifier("notificationDeliveryExecutor") TaskExecutor deliveryExecutor,
+                                     SmtpTransportPool transportPool,
+                                     TemplateRenderer templateRenderer) {
+        super(logRepository, messageCodec, statusWriter, profileCache, retryRouter, partitionPauser, laneScheduler, fairScheduler, metrics);
+        this.deliveryExecutor = deliveryExecutor;
+        this.transportPool = transportPool;
+        this.templateRenderer = templateRenderer;
+    }
 
-    private final NotificationLogRepository logRepository;
-    private final ObjectMapper objectMapper;
+    // One container per priority lane, so a backlog in one lane never blocks another
+    @KafkaListener(
+        topics = "${notification.kafka.topics.email}-high",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${notification.kafka.topics.email}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${notification.kafka.topics.email}-low",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeEmailNotifications(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        log.info("Processing {} Email notifications", records.size());
+        processBatch(records, acknowledgment);
+    }
 
     @KafkaListener(
-        topics = "email-notifications",
+        id = RETRY_LISTENER_ID,
+        topics = "#{@notificationRetryRouter.retryTopics('${notification.kafka.topics.email}')}",
         groupId = "${spring.kafka.consumer.group-id}",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "batchKafkaListenerContainerFactory"
     )
-    public void consumeEmailNotification(
-            @Payload String payload,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            log.info("Processing Email notification - Partition: {}, Offset: {}", partition, offset);
-            
-            NotificationMessage message = objectMapper.readValue(payload, NotificationMessage.class);
-            
-            // Add retry mechanism with exponential backoff for finding the log
-            NotificationLog notificationLog = findNotificationLogWithRetry(message.getLogId(), 5, 200);
-            
-            if (notificationLog == null) {
-                log.error("Failed to find notification log after retries: {}", message.getLogId());
-                acknowledgment.acknowledge();
-                return;
+    public void consumeEmailRetries(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment,
+                                      Consumer<?, ?> consumer) {
+        log.info("Processing {} Email notification retries", records.size());
+        processDelayedBatch(records, acknowledgment, consumer, RETRY_LISTENER_ID);
+    }
+
+    /**
+     * Groups the batch by SMTP server and account and sends each group over at most
+     * max-per-key pooled connections, so consecutive messages reuse one authenticated session.
+     */
+    @Override
+    protected List<DeliveryResult> deliverAll(Map<Integer, List<NotificationMessage>> messagesByPartition) {
+        List<DeliveryResult> results = new ArrayList<>();
+        Map<SmtpRoute, List<Outgoing>> messagesByRoute = new LinkedHashMap<>();
+        for (List<NotificationMessage> messages : messagesByPartition.values()) {
+            for (NotificationMessage message : messages) {
+                SenderProfileSnapshot profile = profileCache.get(message);
+                if (profile == null) {
+                    results.add(DeliveryResult.failedPermanently(message.getLogId(), "Sender profile not found"));
+                    continue;
+                }
+                messagesByRoute.computeIfAbsent(SmtpRoute.of(profile), route -> new ArrayList<>())
+                    .add(new Outgoing(message, profile));
             }
-            
-            sendEmail(message, notificationLog);
-            acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            log.error("Error processing Email notification: {}", e.getMessage(), e);
-            acknowledgment.acknowledge();
         }
+
+        List<CompletableFuture<List<DeliveryResult>>> futures = new ArrayList<>();
+        messagesByRoute.forEach((route, messages) -> {
+            for (List<Outgoing> chunk : split(messages, transportPool.getMaxPerKey())) {
+                futures.add(CompletableFuture.supplyAsync(() -> sendChunk(route, chunk), deliveryExecutor));
+            }
+        });
+
+        futures.stream()
+            .map(CompletableFuture::join)
+            .forEach(results::addAll);
+        return results;
     }
 
-    private NotificationLog findNotificationLogWithRetry(java.util.UUID logId, int maxRetries, long delayMs) {
-        for (int i = 0; i < maxRetries; i++) {
+    /**
+     * Sends the chunk over one pooled connection. If that connection breaks, the failed
+     * message is reported and the rest of the chunk continues on a newly borrowed one.
+     */
+    private List<DeliveryResult> sendChunk(SmtpRoute route, List<Outgoing> chunk) {
+        List<DeliveryResult> results = new ArrayList<>(chunk.size());
+        while (results.size() < chunk.size()) {
+            List<Outgoing> remaining = chunk.subList(results.size(), chunk.size());
             try {
-                var optionalLog = logRepository.findById(logId);
-                if (optionalLog.isPresent()) {
-                    return optionalLog.get();
-                }
-                
-                if (i < maxRetries - 1) {
-                    log.debug("Log not found yet, attempt {}/{}, waiting {}ms", i + 1, maxRetries, delayMs);
-                    Thread.sleep(delayMs);
-                    delayMs *= 2; // Exponential backoff
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Thread interrupted while waiting for log");
-                return null;
+                transportPool.execute(route.key(), route.password(), connection -> {
+                    for (Outgoing outgoing : remaining) {
+                        results.add(sendEmail(connection, outgoing.message(), outgoing.profile()));
+                        if (connection.isBroken()) {
+                            log.warn("SMTP connection to {} broke, borrowing another for {} messages",
+                                route.key().host(), chunk.size() - results.size());
+                            break;
+                        }
+                    }
+                    return null;
+                });
             } catch (Exception e) {
-                log.error("Error finding notification log: {}", e.getMessage());
+                log.error("Failed to connect to SMTP server {}: {}", route.key().host(), e.getMessage());
+                boolean permanent = e instanceof AuthenticationFailedException;
+                chunk.subList(results.size(), chunk.size()).forEach(outgoing -> results.add(permanent
+                    ? DeliveryResult.failedPermanently(outgoing.message().getLogId(), e.getMessage())
+                    : DeliveryResult.failed(outgoing.message().getLogId(), e.getMessage())));
             }
         }
-        return null;
+        return results;
     }
 
-    private void sendEmail(NotificationMessage message, NotificationLog notificationLog) {
-        int maxRetries = 3;
-        
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
+    private DeliveryResult sendEmail(SmtpTransportPool.SmtpConnection connection, NotificationMessage message,
+                                     SenderProfileSnapshot profile) {
+        try {
+            MimeMessage mimeMessage = new MimeMessage(connection.getSession());
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+            helper.setFrom(profile.getEmailFrom());
+            helper.setTo(message.getRecipient());
+            helper.setSubject(message.getSubject() != null ? message.getSubject() : "Notification");
+            helper.setText(templateRenderer.renderEmail(message), true);
+
+            long start = System.nanoTime();
             try {
-                // ✅ FIX: Fetch fresh entity from database to avoid stale state
-                NotificationLog freshLog = logRepository.findById(notificationLog.getId())
-                    .orElseThrow(() -> new RuntimeException("Log not found"));
-                
-                freshLog.setStatus(NotificationStatus.PROCESSING);
-                logRepository.saveAndFlush(freshLog);
-
-                JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-                mailSender.setHost(message.getEmailSmtpHost());
-                mailSender.setPort(message.getEmailSmtpPort());
-                mailSender.setUsername(message.getEmailSmtpUsername());
-                mailSender.setPassword(message.getEmailSmtpPassword());
-
-                Properties props = mailSender.getJavaMailProperties();
-                props.put("mail.transport.protocol", "smtp");
-                props.put("mail.smtp.auth", "true");
-                props.put("mail.smtp.starttls.enable", Boolean.TRUE.equals(message.getEmailUseTLS()) ? "true" : "false");
-                props.put("mail.smtp.ssl.enable", Boolean.TRUE.equals(message.getEmailUseSSL()) ? "true" : "false");
-
-                MimeMessage mimeMessage = mailSender.createMimeMessage();
-                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-                helper.setFrom(message.getEmailFrom());
-                helper.setTo(message.getRecipient());
-                helper.setSubject(message.getSubject() != null ? message.getSubject() : "Notification");
-                helper.setText(formatEmailMessage(message), true);
-
-                mailSender.send(mimeMessage);
-
-                // ✅ FIX: Fetch fresh entity again before final update
-                freshLog = logRepository.findById(notificationLog.getId())
-                    .orElseThrow(() -> new RuntimeException("Log not found"));
-                
-                freshLog.setStatus(NotificationStatus.SENT);
-                freshLog.setResponse("Email sent successfully");
-                freshLog.setSentAt(LocalDateTime.now());
-                logRepository.saveAndFlush(freshLog);
-
-                log.info("Email sent - To: {}, Batch: {}", message.getRecipient(), message.getBatchId());
-                
-                return; // Success, exit method
-                
-            } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
-                log.warn("Optimistic locking conflict, attempt {}/{}: {}", 
-                         attempt + 1, maxRetries, e.getMessage());
-                
-                if (attempt == maxRetries - 1) {
-                    log.error("Failed to update notification log after {} retries", maxRetries);
-                    updateLogAsFailed(notificationLog, "Optimistic locking failure after retries");
-                }
-                
-                // Wait before retrying
-                try {
-                    Thread.sleep(100 * (attempt + 1)); // Exponential backoff
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
-                
-            } catch (MessagingException e) {
-                log.error("Failed to send email: {}", e.getMessage(), e);
-                updateLogAsFailed(notificationLog, e.getMessage());
-                return; // Exit on email errors
-            } catch (Exception e) {
-                log.error("Unexpected error sending email: {}", e.getMessage(), e);
-                updateLogAsFailed(notificationLog, e.getMessage());
-                return; // Exit on other errors
+                connection.send(mimeMessage);
+            } finally {
+                metrics.record(NotificationMetrics.Stage.PROVIDER_CALL, message, start);
             }
+
+            log.info("Email sent - To: {}, Batch: {}", message.getRecipient(), message.getBatchId());
+            return DeliveryResult.sent(message.getLogId(), "Email sent successfully");
+
+        } catch (MessagingException e) {
+            log.error("Failed to send email: {}", e.getMessage());
+            return isPermanent(e)
+                ? DeliveryResult.failedPermanently(message.getLogId(), e.getMessage())
+                : DeliveryResult.failed(message.getLogId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error sending email: {}", e.getMessage(), e);
+            return DeliveryResult.failed(message.getLogId(), e.getMessage());
         }
     }
 
-    private String formatEmailMessage(NotificationMessage message) {
-        return String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <div style="background-color: #f5f5f5; padding: 20px;">
-                    <div style="background-color: white; padding: 20px; border-radius: 5px;">
-                        <h2 style="color: #333;">%s - %s</h2>
-                        <hr style="border: 1px solid #eee;"/>
-                        <div style="margin: 20px 0;">
-                            %s
-                        </div>
-                        <hr style="border: 1px solid #eee;"/>
-                        <p style="color: #666; font-size: 12px; margin-top: 20px;">
-                            <i>Sent from: %s</i>
-                        </p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """,
-            message.getType(),
-            message.getSubject() != null ? message.getSubject() : "Notification",
-            message.getMessage().replace("\n", "<br/>"),
-            message.getSystemName()
-        );
+    /**
+     * Invalid addresses, rejected credentials and SMTP 5xx replies fail the same way on every
+     * attempt; everything else, including 4xx replies and I/O errors, is worth retrying.
+     */
+    private static boolean isPermanent(MessagingException e) {
+        for (Exception cause = e; cause != null;
+             cause = cause instanceof MessagingException me ? me.getNextException() : null) {
+            if (cause instanceof SMTPSendFailedException smtp) {
+                return smtp.getReturnCode() >= 500;
+            }
+            if (cause instanceof SMTPAddressFailedException smtp) {
+                return smtp.getReturnCode() >= 500;
+            }
+            if (cause instanceof AddressException || cause instanceof AuthenticationFailedException) {
+                return true;
+            }
+        }
+        return e instanceof SendFailedException failed
+            && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0;
     }
 
-    private void updateLogAsFailed(NotificationLog notificationLog, String error) {
-        int maxRetries = 3;
-        
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
-            try {
-                // ✅ FIX: Always fetch fresh entity
-                NotificationLog freshLog = logRepository.findById(notificationLog.getId())
-                    .orElseThrow(() -> new RuntimeException("Log not found"));
-                
-                freshLog.setStatus(NotificationStatus.FAILED);
-                freshLog.setErrorMessage(error);
-                freshLog.setRetryCount(freshLog.getRetryCount() + 1);
-                logRepository.saveAndFlush(freshLog);
-                
-                return; // Success
-                
-            } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
-                log.warn("Failed to update log as failed, attempt {}/{}", attempt + 1, maxRetries);
-                
-                if (attempt < maxRetries - 1) {
-                    try {
-                        Thread.sleep(100 * (attempt + 1));
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Critical error updating notification log: {}", e.getMessage());
-                return;
-            }
+    private static <T> List<List<T>> split(List<T> items, int parts) {
+        int chunks = Math.max(1, Math.min(parts, items.size()));
+        List<List<T>> result = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            result.add(new ArrayList<>());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            result.get(i % chunks).add(items.get(i));
+        }
+        return result;
+    }
+
+    private record Outgoing(NotificationMessage message, SenderProfileSnapshot profile) {
+    }
+
+    private record SmtpRoute(SmtpTransportPool.SmtpKey key, String password) {
+
+        static SmtpRoute of(SenderProfileSnapshot profile) {
+            return new SmtpRoute(profile.smtpKey(), profile.getEmailSmtpPassword());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,13 @@
 package com.emenu.features.notification.kafka;
 
+import com.emenu.enums.notification.NotificationPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,15 +17,20 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -33,67 +43,127 @@ public class KafkaConfig {
     @Value("${notification.kafka.topics.email}")
     private String emailTopic;
 
+    @Value("${notification.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${notification.kafka.consumer.max-poll-records:200}")
+    private int maxPollRecords;
+
+    @Value("${notification.kafka.consumer.max-poll-interval-ms:300000}")
+    private int maxPollIntervalMs;
+
+    @Value("${notification.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${notification.kafka.partitions:12}")
+    private int partitions;
+
+    @Value("${notification.kafka.replicas:1}")
+    private short replicas;
+
+    @Value("${notification.kafka.expected-instances:1}")
+    private int expectedInstances;
+
+    @Value("${notification.delivery.threads:16}")
+    private int deliveryThreads;
+
     // ========== TOPICS ==========
 
     @Bean
-    public NewTopic telegramNotificationTopic() {
-        return TopicBuilder.name(telegramTopic)
-                .partitions(3)
-                .replicas(1)
-                .build();
+    public KafkaAdmin.NewTopics notificationLaneTopics() {
+        List<NewTopic> topics = new ArrayList<>();
+        for (String baseTopic : List.of(telegramTopic, emailTopic)) {
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                topics.add(TopicBuilder.name(priority.topic(baseTopic))
+                        .partitions(topicPartitions())
+                        .replicas(replicas)
+                        .build());
+            }
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
     }
 
     @Bean
-    public NewTopic emailNotificationTopic() {
-        return TopicBuilder.name(emailTopic)
-                .partitions(3)
-                .replicas(1)
-                .build();
+    public KafkaAdmin.NewTopics notificationRetryTopics(NotificationRetryRouter retryRouter) {
+        return new KafkaAdmin.NewTopics(retryRouter.allTopics().stream()
+                .map(topic -> TopicBuilder.name(topic)
+                        .partitions(topicPartitions())
+                        .replicas(replicas)
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Enough partitions for every listener thread of every instance; KafkaAdmin grows existing
+     * topics to this count on startup but never shrinks them.
+     */
+    private int topicPartitions() {
+        return Math.max(partitions, concurrency * Math.max(1, expectedInstances));
     }
 
     // ========== PRODUCER CONFIGURATION ==========
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
     // ========== CONSUMER CONFIGURATION ==========
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.lang.String");
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMs);
+        DefaultKafkaConsumerFactory<String, byte[]> factory = new DefaultKafkaConsumerFactory<>(props);
+        // Exports per-topic consumer lag, i.e. the queue depth of every priority lane
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = 
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
-}
\ No newline at end of file
+
+    // ========== DELIVERY EXECUTOR ==========
+
+    @Bean(name = "notificationDeliveryExecutor")
+    public ThreadPoolTaskExecutor notificationDeliveryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(deliveryThreads);
+        executor.setMaxPoolSize(deliveryThreads);
+        executor.setQueueCapacity(maxPollRecords * 3);
+        executor.setThreadNamePrefix("notif-delivery-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
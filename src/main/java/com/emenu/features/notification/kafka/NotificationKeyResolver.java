@@ -0,0 +1,57 @@
+package com.emenu.features.notification.kafka;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.PartitionKeyStrategy;
+import com.emenu.features.notification.dto.NotificationMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka record key of a delivery message under the channel's {@link PartitionKeyStrategy}.
+ * The producer's default partitioner hashes the key, so messages with equal keys stay in
+ * order on one partition while everything else spreads across the topic.
+ */
+@Component
+public class NotificationKeyResolver {
+
+    private final PartitionKeyStrategy telegramStrategy;
+    private final PartitionKeyStrategy emailStrategy;
+
+    public NotificationKeyResolver(
+            @Value("${notification.kafka.partitioning.telegram:CHAT}") PartitionKeyStrategy telegramStrategy,
+            @Value("${notification.kafka.partitioning.email:RECIPIENT}") PartitionKeyStrategy emailStrategy) {
+        this.telegramStrategy = telegramStrategy;
+        this.emailStrategy = emailStrategy;
+    }
+
+    public String keyOf(NotificationMessage message) {
+        PartitionKeyStrategy strategy = message.getChannel() == NotificationChannel.TELEGRAM
+                ? telegramStrategy
+                : emailStrategy;
+
+        return switch (strategy) {
+            case BATCH -> message.getBatchId();
+            case RECIPIENT -> orBatch(message.getRecipient(), message);
+            case TENANT -> orBatch(tenantOf(message), message);
+            case CHAT -> message.getRecipient() == null
+                    ? message.getBatchId()
+                    : senderOf(message) + ":" + message.getRecipient();
+        };
+    }
+
+    private static String tenantOf(NotificationMessage message) {
+        return message.getApiKeyValue() != null ? message.getApiKeyValue() : message.getSystemName();
+    }
+
+    private static String senderOf(NotificationMessage message) {
+        if (message.getSenderProfileId() != null) {
+            return message.getSenderProfileId().toString();
+        }
+        String tenant = tenantOf(message);
+        return tenant != null ? tenant : "";
+    }
+
+    private static String orBatch(String key, NotificationMessage message) {
+        return key != null ? key : message.getBatchId();
+    }
+}
@@ -0,0 +1,279 @@
+package com.emenu.features.notification.kafka;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
+import com.emenu.enums.notification.NotificationType;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact wire format for {@link NotificationMessage} on Kafka.
+ *
+ * <p>Layout (v1): a version byte, a varint presence mask with one bit per field, then the
+ * present fields in mask order. Strings are varint length + UTF-8, UUIDs two longs, enums
+ * their ordinal, so enum constants must only ever be appended. New fields take the next
+ * free bit and are appended; any other layout change needs a new version byte. Records
+ * starting with {@code '{'} are decoded as legacy JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationMessageCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final byte JSON_START = '{';
+
+    private static final NotificationChannel[] CHANNELS = NotificationChannel.values();
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final NotificationPriority[] PRIORITIES = NotificationPriority.values();
+
+    private static final int LOG_ID = 1;
+    private static final int BATCH_ID = 1 << 1;
+    private static final int API_KEY_VALUE = 1 << 2;
+    private static final int SYSTEM_NAME = 1 << 3;
+    private static final int CHANNEL = 1 << 4;
+    private static final int TYPE = 1 << 5;
+    private static final int RECIPIENT = 1 << 6;
+    private static final int SUBJECT = 1 << 7;
+    private static final int MESSAGE = 1 << 8;
+    private static final int RETRY_COUNT = 1 << 9;
+    private static final int TELEGRAM_BOT_TOKEN = 1 << 10;
+    private static final int EMAIL_FROM = 1 << 11;
+    private static final int EMAIL_SMTP_HOST = 1 << 12;
+    private static final int EMAIL_SMTP_PORT = 1 << 13;
+    private static final int EMAIL_SMTP_USERNAME = 1 << 14;
+    private static final int EMAIL_SMTP_PASSWORD = 1 << 15;
+    private static final int EMAIL_USE_SSL = 1 << 16;
+    private static final int EMAIL_USE_TLS = 1 << 17;
+    private static final int SENDER_PROFILE_ID = 1 << 18;
+    private static final int SENDER_PROFILE_VERSION = 1 << 19;
+    private static final int PRIORITY = 1 << 20;
+
+    private final ObjectMapper objectMapper;
+
+    // ===== ENCODE =====
+
+    public byte[] encode(NotificationMessage message) {
+        Writer out = new Writer(estimateSize(message));
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarInt(presenceMask(message));
+
+        if (message.getLogId() != null) out.writeUuid(message.getLogId());
+        if (message.getBatchId() != null) out.writeString(message.getBatchId());
+        if (message.getApiKeyValue() != null) out.writeString(message.getApiKeyValue());
+        if (message.getSystemName() != null) out.writeString(message.getSystemName());
+        if (message.getChannel() != null) out.writeVarInt(message.getChannel().ordinal());
+        if (message.getType() != null) out.writeVarInt(message.getType().ordinal());
+        if (message.getRecipient() != null) out.writeString(message.getRecipient());
+        if (message.getSubject() != null) out.writeString(message.getSubject());
+        if (message.getMessage() != null) out.writeString(message.getMessage());
+        if (message.getRetryCount() != null) out.writeVarInt(message.getRetryCount());
+        if (message.getTelegramBotToken() != null) out.writeString(message.getTelegramBotToken());
+        if (message.getEmailFrom() != null) out.writeString(message.getEmailFrom());
+        if (message.getEmailSmtpHost() != null) out.writeString(message.getEmailSmtpHost());
+        if (message.getEmailSmtpPort() != null) out.writeVarInt(message.getEmailSmtpPort());
+        if (message.getEmailSmtpUsername() != null) out.writeString(message.getEmailSmtpUsername());
+        if (message.getEmailSmtpPassword() != null) out.writeString(message.getEmailSmtpPassword());
+        if (message.getEmailUseSSL() != null) out.writeByte(message.getEmailUseSSL() ? 1 : 0);
+        if (message.getEmailUseTLS() != null) out.writeByte(message.getEmailUseTLS() ? 1 : 0);
+        if (message.getSenderProfileId() != null) out.writeUuid(message.getSenderProfileId());
+        if (message.getSenderProfileVersion() != null) out.writeVarInt(message.getSenderProfileVersion());
+        if (message.getPriority() != null) out.writeVarInt(message.getPriority().ordinal());
+
+        return out.toByteArray();
+    }
+
+    // ===== DECODE =====
+
+    public NotificationMessage decode(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            throw new IOException("Empty notification record");
+        }
+        if (data[0] == JSON_START) {
+            return objectMapper.readValue(data, NotificationMessage.class);
+        }
+        if (data[0] != FORMAT_VERSION) {
+            throw new IOException("Unsupported notification format version: " + data[0]);
+        }
+
+        Reader in = new Reader(data, 1);
+        int mask = in.readVarInt();
+        NotificationMessage message = new NotificationMessage();
+
+        if ((mask & LOG_ID) != 0) message.setLogId(in.readUuid());
+        if ((mask & BATCH_ID) != 0) message.setBatchId(in.readString());
+        if ((mask & API_KEY_VALUE) != 0) message.setApiKeyValue(in.readString());
+        if ((mask & SYSTEM_NAME) != 0) message.setSystemName(in.readString());
+        if ((mask & CHANNEL) != 0) message.setChannel(CHANNELS[in.readVarInt()]);
+        if ((mask & TYPE) != 0) message.setType(TYPES[in.readVarInt()]);
+        if ((mask & RECIPIENT) != 0) message.setRecipient(in.readString());
+        if ((mask & SUBJECT) != 0) message.setSubject(in.readString());
+        if ((mask & MESSAGE) != 0) message.setMessage(in.readString());
+        if ((mask & RETRY_COUNT) != 0) message.setRetryCount(in.readVarInt());
+        if ((mask & TELEGRAM_BOT_TOKEN) != 0) message.setTelegramBotToken(in.readString());
+        if ((mask & EMAIL_FROM) != 0) message.setEmailFrom(in.readString());
+        if ((mask & EMAIL_SMTP_HOST) != 0) message.setEmailSmtpHost(in.readString());
+        if ((mask & EMAIL_SMTP_PORT) != 0) message.setEmailSmtpPort(in.readVarInt());
+        if ((mask & EMAIL_SMTP_USERNAME) != 0) message.setEmailSmtpUsername(in.readString());
+        if ((mask & EMAIL_SMTP_PASSWORD) != 0) message.setEmailSmtpPassword(in.readString());
+        if ((mask & EMAIL_USE_SSL) != 0) message.setEmailUseSSL(in.readByte() != 0);
+        if ((mask & EMAIL_USE_TLS) != 0) message.setEmailUseTLS(in.readByte() != 0);
+        if ((mask & SENDER_PROFILE_ID) != 0) message.setSenderProfileId(in.readUuid());
+        if ((mask & SENDER_PROFILE_VERSION) != 0) message.setSenderProfileVersion(in.readVarInt());
+        if ((mask & PRIORITY) != 0) message.setPriority(PRIORITIES[in.readVarInt()]);
+
+        return message;
+    }
+
+    // ===== HELPERS =====
+
+    private static int presenceMask(NotificationMessage message) {
+        int mask = 0;
+        if (message.getLogId() != null) mask |= LOG_ID;
+        if (message.getBatchId() != null) mask |= BATCH_ID;
+        if (message.getApiKeyValue() != null) mask |= API_KEY_VALUE;
+        if (message.getSystemName() != null) mask |= SYSTEM_NAME;
+        if (message.getChannel() != null) mask |= CHANNEL;
+        if (message.getType() != null) mask |= TYPE;
+        if (message.getRecipient() != null) mask |= RECIPIENT;
+        if (message.getSubject() != null) mask |= SUBJECT;
+        if (message.getMessage() != null) mask |= MESSAGE;
+        if (message.getRetryCount() != null) mask |= RETRY_COUNT;
+        if (message.getTelegramBotToken() != null) mask |= TELEGRAM_BOT_TOKEN;
+        if (message.getEmailFrom() != null) mask |= EMAIL_FROM;
+        if (message.getEmailSmtpHost() != null) mask |= EMAIL_SMTP_HOST;
+        if (message.getEmailSmtpPort() != null) mask |= EMAIL_SMTP_PORT;
+        if (message.getEmailSmtpUsername() != null) mask |= EMAIL_SMTP_USERNAME;
+        if (message.getEmailSmtpPassword() != null) mask |= EMAIL_SMTP_PASSWORD;
+        if (message.getEmailUseSSL() != null) mask |= EMAIL_USE_SSL;
+        if (message.getEmailUseTLS() != null) mask |= EMAIL_USE_TLS;
+        if (message.getSenderProfileId() != null) mask |= SENDER_PROFILE_ID;
+        if (message.getSenderProfileVersion() != null) mask |= SENDER_PROFILE_VERSION;
+        if (message.getPriority() != null) mask |= PRIORITY;
+        return mask;
+    }
+
+    private static int estimateSize(NotificationMessage message) {
+        // Fixed fields plus the body, which dominates; the writer grows if this is short
+        int size = 128;
+        if (message.getMessage() != null) size += message.getMessage().length();
+        if (message.getSubject() != null) size += message.getSubject().length();
+        return size;
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeUuid(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        byte readByte() throws IOException {
+            require(1);
+            return data[position++];
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint at offset " + position);
+        }
+
+        long readLong() throws IOException {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        UUID readUuid() throws IOException {
+            return new UUID(readLong(), readLong());
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt();
+            require(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private void require(int length) throws IOException {
+            if (length < 0 || position + length > data.length) {
+                throw new IOException("Truncated notification record at offset " + position);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.emenu.features.notification.kafka;
+
+import com.emenu.features.notification.service.NotificationOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxRelay {
+
+    private final NotificationOutboxService outboxService;
+
+    @Value("${notification.outbox.relay-batch-size:500}")
+    private int relayBatchSize;
+
+    @Value("${notification.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Publish committed outbox rows to Kafka, draining full batches back to back
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (outboxService.relayPending() < relayBatchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error relaying notification outbox: {}", e.getMessage(), e);
+        }
+    }
+}
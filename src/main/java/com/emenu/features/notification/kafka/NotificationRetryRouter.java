@@ -0,0 +1,120 @@
+package com.emenu.features.notification.kafka;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.dto.NotificationMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Retry topology of the delivery topics. A retryable failure moves to the next retry tier,
+ * {@code <topic>-retry-<delay>}, where it is redelivered once the tier delay has passed
+ * since it was forwarded. Permanent failures and messages that have been through every tier
+ * go to {@code <topic>-dlt}.
+ */
+@Component
+@Slf4j
+public class NotificationRetryRouter {
+
+    public static final String ERROR_HEADER = "notification-error";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final NotificationMessageCodec messageCodec;
+    private final NotificationKeyResolver keyResolver;
+    private final String telegramTopic;
+    private final String emailTopic;
+    private final List<String> tierSuffixes;
+    private final Map<String, Duration> delayByTopic = new HashMap<>();
+
+    public NotificationRetryRouter(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                   NotificationMessageCodec messageCodec,
+                                   NotificationKeyResolver keyResolver,
+                                   @Value("${notification.kafka.topics.telegram}") String telegramTopic,
+                                   @Value("${notification.kafka.topics.email}") String emailTopic,
+                                   @Value("${notification.retry.tiers:5s,1m,10m}") List<String> tiers) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.messageCodec = messageCodec;
+        this.keyResolver = keyResolver;
+        this.telegramTopic = telegramTopic;
+        this.emailTopic = emailTopic;
+        this.tierSuffixes = tiers.stream().map(String::trim).toList();
+
+        for (String base : List.of(telegramTopic, emailTopic)) {
+            for (String suffix : tierSuffixes) {
+                delayByTopic.put(retryTopic(base, suffix), DurationStyle.detectAndParse(suffix));
+            }
+        }
+    }
+
+    // ===== TOPOLOGY =====
+
+    public String baseTopic(NotificationChannel channel) {
+        return channel == NotificationChannel.TELEGRAM ? telegramTopic : emailTopic;
+    }
+
+    public String[] retryTopics(String baseTopic) {
+        return tierSuffixes.stream().map(suffix -> retryTopic(baseTopic, suffix)).toArray(String[]::new);
+    }
+
+    public String dltTopic(String baseTopic) {
+        return baseTopic + "-dlt";
+    }
+
+    public List<String> allTopics() {
+        List<String> topics = new ArrayList<>(delayByTopic.keySet());
+        topics.add(dltTopic(telegramTopic));
+        topics.add(dltTopic(emailTopic));
+        return topics;
+    }
+
+    /**
+     * Epoch millis at which a record on a retry topic becomes due for redelivery.
+     */
+    public long dueAt(ConsumerRecord<?, ?> record) {
+        Duration delay = delayByTopic.getOrDefault(record.topic(), Duration.ZERO);
+        return record.timestamp() + delay.toMillis();
+    }
+
+    // ===== FORWARDING =====
+
+    /**
+     * Publishes a failed message to its next retry tier, or to the dead-letter topic if the
+     * failure is permanent or the tiers are exhausted.
+     */
+    public CompletableFuture<?> forward(NotificationMessage message, DeliveryResult result) {
+        String base = baseTopic(message.getChannel());
+        int attempt = message.getRetryCount() != null ? message.getRetryCount() : 0;
+
+        if (result.isRetryable() && attempt < tierSuffixes.size()) {
+            message.setRetryCount(attempt + 1);
+            String topic = retryTopic(base, tierSuffixes.get(attempt));
+            log.debug("Scheduling retry {} of {} on {}", attempt + 1, message.getLogId(), topic);
+            return kafkaTemplate.send(topic, keyResolver.keyOf(message), messageCodec.encode(message));
+        }
+
+        String topic = dltTopic(base);
+        log.warn("Dead-lettering notification {} after {} retries: {}", message.getLogId(), attempt, result.getErrorMessage());
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, keyResolver.keyOf(message), messageCodec.encode(message));
+        if (result.getErrorMessage() != null) {
+            record.headers().add(ERROR_HEADER, result.getErrorMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        return kafkaTemplate.send(record);
+    }
+
+    private static String retryTopic(String baseTopic, String suffix) {
+        return baseTopic + "-retry-" + suffix;
+    }
+}
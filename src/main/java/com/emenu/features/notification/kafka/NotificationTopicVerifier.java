@@ -0,0 +1,61 @@
+package com.emenu.features.notification.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the delivery topics once the application is up. KafkaAdmin creates missing topics
+ * and adds partitions to existing ones at startup; this reports any topic it could not grow
+ * and any topic with fewer partitions than listener threads, which would leave threads idle.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationTopicVerifier {
+
+    private final KafkaAdmin kafkaAdmin;
+    private final List<KafkaAdmin.NewTopics> notificationTopics;
+
+    @Value("${notification.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyPartitions() {
+        Map<String, Integer> expected = new HashMap<>();
+        notificationTopics.forEach(topics ->
+            topics.getNewTopics().forEach(topic -> expected.put(topic.name(), topic.numPartitions())));
+        if (expected.isEmpty()) {
+            return;
+        }
+
+        Map<String, TopicDescription> descriptions;
+        try {
+            descriptions = kafkaAdmin.describeTopics(expected.keySet().toArray(String[]::new));
+        } catch (Exception e) {
+            log.warn("Could not verify notification topic partitions: {}", e.getMessage());
+            return;
+        }
+
+        descriptions.forEach((name, description) -> {
+            int actual = description.partitions().size();
+            int wanted = expected.get(name);
+            if (actual < wanted) {
+                log.warn("Topic {} has {} partitions, expected {}; it could not be grown", name, actual, wanted);
+            } else if (actual < concurrency) {
+                log.warn("Topic {} has {} partitions for {} listener threads; {} threads stay idle",
+                        name, actual, concurrency, concurrency - actual);
+            }
+        });
+        log.info("Verified partitions of {} notification topics", descriptions.size());
+    }
+}
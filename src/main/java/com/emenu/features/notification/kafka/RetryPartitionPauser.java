@@ -0,0 +1,51 @@
+package com.emenu.features.notification.kafka;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pauses single partitions of a retry listener until their next record is due. Only the
+ * paused partition stops; the other partitions and retry tiers of the same listener keep
+ * being polled. The container applies pause and resume requests before its next poll.
+ */
+@Component
+@Slf4j
+public class RetryPartitionPauser {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retry-partition-resume");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RetryPartitionPauser(KafkaListenerEndpointRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void pauseUntil(String listenerId, TopicPartition partition, long dueAtMillis) {
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        if (container == null) {
+            log.warn("No listener container {} to pause {}", listenerId, partition);
+            return;
+        }
+
+        container.pausePartition(partition);
+        long delayMs = Math.max(0, dueAtMillis - System.currentTimeMillis());
+        scheduler.schedule(() -> container.resumePartition(partition), delayMs, TimeUnit.MILLISECONDS);
+        log.debug("Paused {} on {} for {} ms", partition, listenerId, delayMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
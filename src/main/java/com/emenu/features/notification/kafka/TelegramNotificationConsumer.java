@@ -1,214 +1,123 @@
 package com.emenu.features.notification.kafka;
 
-import com.emenu.enums.notification.NotificationStatus;
+import com.emenu.features.notification.cache.SenderProfileCache;
+import com.emenu.features.notification.delivery.DeliveryStatusWriter;
+import com.emenu.features.notification.delivery.TenantFairScheduler;
+import com.emenu.features.notification.delivery.WeightedLaneScheduler;
+import com.emenu.features.notification.dto.DeliveryResult;
 import com.emenu.features.notification.dto.NotificationMessage;
-import com.emenu.features.notification.models.NotificationLog;
+import com.emenu.features.notification.metrics.NotificationMetrics;
 import com.emenu.features.notification.repository.NotificationLogRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.emenu.features.notification.service.TelegramSender;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class TelegramNotificationConsumer {
+public class TelegramNotificationConsumer extends AbstractNotificationConsumer {
 
-    private final NotificationLogRepository logRepository;
-    private final ObjectMapper objectMapper;
-    private final WebClient.Builder webClientBuilder;
+    private static final String RETRY_LISTENER_ID = "telegram-retries";
 
-    @Value("${notification.telegram.api-url}")
-    private String telegramApiUrl;
+    private final TelegramSender telegramSender;
 
-    @Value("${notification.telegram.timeout:5000}")
-    private int timeout;
+    @Value("${notification.telegram.max-in-flight-per-partition:16}")
+    private int maxInFlightPerPartition;
 
-    @KafkaListener(
-        topics = "telegram-notifications",
-        groupId = "${spring.kafka.consumer.group-id}",
-        containerFactory = "kafkaListenerContainerFactory"
-    )
-    public void consumeTelegramNotification(
-            @Payload String payload,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            log.info("Processing Telegram notification - Partition: {}, Offset: {}", partition, offset);
-            
-            NotificationMessage message = objectMapper.readValue(payload, NotificationMessage.class);
-            
-            // Add retry mechanism with exponential backoff for finding the log
-            NotificationLog notificationLog = findNotificationLogWithRetry(message.getLogId(), 5, 200);
-            
-            if (notificationLog == null) {
-                log.error("Failed to find notification log after retries: {}", message.getLogId());
-                acknowledgment.acknowledge();
-                return;
-            }
-            
-            sendToTelegram(message, notificationLog);
-            acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            log.error("Error processing Telegram notification: {}", e.getMessage(), e);
-            acknowledgment.acknowledge();
-        }
+    @Value("${notification.telegram.max-batch-wait-ms:60000}")
+    private long maxBatchWaitMs;
+
+    @Value("${notification.telegram.timeout:5000}")
+    private long requestTimeoutMs;
+
+    @Value("${notification.kafka.consumer.max-poll-interval-ms:300000}")
+    private long maxPollIntervalMs;
+
+    public TelegramNotificationConsumer(NotificationLogRepository logRepository,
+                                        NotificationMessageCodec messageCodec,
+                                        DeliveryStatusWriter statusWriter,
+                                        SenderProfileCache profileCache,
+                                        NotificationRetryRouter retryRouter,
+                                        RetryPartitionPauser partitionPauser,
+                                        WeightedLaneScheduler laneScheduler,
+                                        TenantFairScheduler fairScheduler,
+                                        NotificationMetrics metrics,
+                                        TelegramSender telegramSender) {
+        super(logRepository, messageCodec, statusWriter, profileCache, retryRouter, partitionPauser, laneScheduler, fairScheduler, metrics);
+        this.telegramSender = telegramSender;
     }
 
-    private NotificationLog findNotificationLogWithRetry(java.util.UUID logId, int maxRetries, long delayMs) {
-        for (int i = 0; i < maxRetries; i++) {
-            try {
-                var optionalLog = logRepository.findById(logId);
-                if (optionalLog.isPresent()) {
-                    return optionalLog.get();
-                }
-                
-                if (i < maxRetries - 1) {
-                    log.debug("Log not found yet, attempt {}/{}, waiting {}ms", i + 1, maxRetries, delayMs);
-                    Thread.sleep(delayMs);
-                    delayMs *= 2; // Exponential backoff
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Thread interrupted while waiting for log");
-                return null;
-            } catch (Exception e) {
-                log.error("Error finding notification log: {}", e.getMessage());
-            }
+    /**
+     * A batch may wait up to maxBatchWaitMs for rate limits plus one request timeout; that has
+     * to stay well inside max.poll.interval.ms, or the group rebalances and the batch is
+     * delivered twice.
+     */
+    @PostConstruct
+    void checkBatchWaitCap() {
+        if (maxBatchWaitMs + requestTimeoutMs > maxPollIntervalMs / 2) {
+            throw new IllegalStateException("notification.telegram.max-batch-wait-ms (" + maxBatchWaitMs
+                    + ") plus the request timeout must be at most half of max-poll-interval-ms (" + maxPollIntervalMs + ")");
         }
-        return null;
     }
 
-    private void sendToTelegram(NotificationMessage message, NotificationLog notificationLog) {
-        int maxRetries = 3;
-        
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
-            try {
-                // ✅ FIX: Fetch fresh entity from database to avoid stale state
-                NotificationLog freshLog = logRepository.findById(notificationLog.getId())
-                    .orElseThrow(() -> new RuntimeException("Log not found"));
-                
-                freshLog.setStatus(NotificationStatus.PROCESSING);
-                logRepository.saveAndFlush(freshLog);
-
-                String apiUrl = telegramApiUrl + message.getTelegramBotToken() + "/sendMessage";
-
-                Map<String, Object> requestBody = new HashMap<>();
-                requestBody.put("chat_id", message.getRecipient());
-                requestBody.put("text", formatTelegramMessage(message));
-                requestBody.put("parse_mode", "HTML");
-
-                WebClient webClient = webClientBuilder.baseUrl(apiUrl).build();
-                
-                String response = webClient.post()
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofMillis(timeout))
-                    .onErrorResume(e -> {
-                        log.error("Telegram API error: {}", e.getMessage());
-                        return Mono.just("ERROR: " + e.getMessage());
-                    })
-                    .block();
-
-                // ✅ FIX: Fetch fresh entity again before final update
-                freshLog = logRepository.findById(notificationLog.getId())
-                    .orElseThrow(() -> new RuntimeException("Log not found"));
-                
-                freshLog.setStatus(NotificationStatus.SENT);
-                freshLog.setResponse(response);
-                freshLog.setSentAt(LocalDateTime.now());
-                logRepository.saveAndFlush(freshLog);
-
-                log.info("Telegram message sent - Chat: {}, Batch: {}", 
-                         message.getRecipient(), message.getBatchId());
-                
-                return; // Success, exit method
-                
-            } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
-                log.warn("Optimistic locking conflict, attempt {}/{}: {}", 
-                         attempt + 1, maxRetries, e.getMessage());
-                
-                if (attempt == maxRetries - 1) {
-                    log.error("Failed to update notification log after {} retries", maxRetries);
-                    updateLogAsFailed(notificationLog, "Optimistic locking failure after retries");
-                }
-                
-                // Wait before retrying
-                try {
-                    Thread.sleep(100 * (attempt + 1)); // Exponential backoff
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
-                
-            } catch (Exception e) {
-                log.error("Failed to send Telegram: {}", e.getMessage(), e);
-                updateLogAsFailed(notificationLog, e.getMessage());
-                return; // Exit on other errors
-            }
-        }
+    // One container per priority lane, so a backlog in one lane never blocks another
+    @KafkaListener(
+        topics = "${notification.kafka.topics.telegram}-high",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${notification.kafka.topics.telegram}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${notification.kafka.topics.telegram}-low",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeTelegramNotifications(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        log.info("Processing {} Telegram notifications", records.size());
+        processBatch(records, acknowledgment);
     }
 
-    private String formatTelegramMessage(NotificationMessage message) {
-        StringBuilder formatted = new StringBuilder();
-        formatted.append("<b>🔔 ").append(message.getType()).append("</b>\n\n");
-        
-        if (message.getSubject() != null) {
-            formatted.append("<b>").append(message.getSubject()).append("</b>\n\n");
-        }
-        
-        formatted.append(message.getMessage());
-        formatted.append("\n\n<i>From: ").append(message.getSystemName()).append("</i>");
-        
-        return formatted.toString();
+    @KafkaListener(
+        id = RETRY_LISTENER_ID,
+        topics = "#{@notificationRetryRouter.retryTopics('${notification.kafka.topics.telegram}')}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeTelegramRetries(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment,
+                                         Consumer<?, ?> consumer) {
+        log.info("Processing {} Telegram notification retries", records.size());
+        processDelayedBatch(records, acknowledgment, consumer, RETRY_LISTENER_ID);
     }
 
-    private void updateLogAsFailed(NotificationLog notificationLog, String error) {
-        int maxRetries = 3;
-        
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
-            try {
-                // ✅ FIX: Always fetch fresh entity
-                NotificationLog freshLog = logRepository.findById(notificationLog.getId())
-                    .orElseThrow(() -> new RuntimeException("Log not found"));
-                
-                freshLog.setStatus(NotificationStatus.FAILED);
-                freshLog.setErrorMessage(error);
-                freshLog.setRetryCount(freshLog.getRetryCount() + 1);
-                logRepository.saveAndFlush(freshLog);
-                
-                return; // Success
-                
-            } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
-                log.warn("Failed to update log as failed, attempt {}/{}", attempt + 1, maxRetries);
-                
-                if (attempt < maxRetries - 1) {
-                    try {
-                        Thread.sleep(100 * (attempt + 1));
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Critical error updating notification log: {}", e.getMessage());
-                return;
-            }
-        }
+    /**
+     * Sends every partition's messages concurrently, each partition capped at
+     * maxInFlightPerPartition requests. The listener thread only waits for the whole batch,
+     * so the batch offsets are committed once every message in it has completed. Messages
+     * that would wait for rate limits past maxBatchWaitMs fail as retryable and are forwarded
+     * to their retry tier.
+     */
+    @Override
+    protected List<DeliveryResult> deliverAll(Map<Integer, List<NotificationMessage>> messagesByPartition) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchWaitMs);
+        return Flux.fromIterable(messagesByPartition.values())
+            .flatMap(messages -> Flux.fromIterable(messages)
+                    .flatMap(message -> telegramSender.send(message, deadline), maxInFlightPerPartition),
+                Math.max(1, messagesByPartition.size()))
+            .collectList()
+            .block();
     }
-}
\ No newline at end of file
+}
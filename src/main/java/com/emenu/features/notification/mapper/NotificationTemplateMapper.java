@@ -0,0 +1,37 @@
+package com.emenu.features.notification.mapper;
+
+import com.emenu.features.notification.dto.request.CreateTemplateRequest;
+import com.emenu.features.notification.dto.response.TemplateResponse;
+import com.emenu.features.notification.models.NotificationTemplate;
+import com.emenu.shared.dto.PaginationResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.springframework.data.domain.Page;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface NotificationTemplateMapper {
+    
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "apiKeyValue", ignore = true)
+    @Mapping(target = "templateVersion", ignore = true)
+    @Mapping(target = "isActive", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "isDeleted", ignore = true)
+    NotificationTemplate toEntity(CreateTemplateRequest request);
+    
+    @Mapping(target = "variables", ignore = true)
+    TemplateResponse toResponse(NotificationTemplate template);
+    
+    default PaginationResponse<TemplateResponse> toPaginationResponse(Page<NotificationTemplate> page) {
+        return PaginationResponse.<TemplateResponse>builder()
+            .content(page.getContent().stream().map(this::toResponse).toList())
+            .pageNo(page.getNumber())
+            .pageSize(page.getSize())
+            .totalElements(page.getTotalElements())
+            .totalPages(page.getTotalPages())
+            .last(page.isLast())
+            .build();
+    }
+}
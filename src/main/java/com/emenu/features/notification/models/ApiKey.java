@@ -63,6 +63,10 @@ public class ApiKey extends BaseUUIDEntity {
     @Column(name = "usage_reset_date")
     private LocalDateTime usageResetDate;
 
+    // Share of delivery capacity relative to other keys when consumers are contended
+    @Column(name = "delivery_weight")
+    private Integer deliveryWeight = 1;
+
     // Methods
     public boolean isExpired() {
         if (Boolean.TRUE.equals(neverExpires)) {
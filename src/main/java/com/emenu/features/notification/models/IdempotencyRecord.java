@@ -0,0 +1,43 @@
+package com.emenu.features.notification.models;
+
+import com.emenu.shared.domain.BaseUUIDEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_idempotency_records", indexes = {
+    @Index(name = "idx_notif_idem_key", columnList = "api_key_value, idempotency_key", unique = true),
+    @Index(name = "idx_notif_idem_expires", columnList = "expires_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord extends BaseUUIDEntity {
+
+    @Column(name = "api_key_value", nullable = false, length = 64)
+    private String apiKeyValue;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "operation", nullable = false)
+    private String operation;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "completed", nullable = false)
+    private Boolean completed = false;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,51 @@
+package com.emenu.features.notification.models;
+
+import com.emenu.shared.domain.BaseUUIDEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_notif_outbox_pending", columnList = "published, created_at"),
+    @Index(name = "idx_notif_outbox_published_at", columnList = "published_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutbox extends BaseUUIDEntity {
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    @Column(name = "published", nullable = false)
+    private Boolean published = false;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "attempts")
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    public static NotificationOutbox of(String topic, String messageKey, byte[] payload) {
+        NotificationOutbox outbox = new NotificationOutbox();
+        outbox.setTopic(topic);
+        outbox.setMessageKey(messageKey);
+        outbox.setPayload(payload);
+        return outbox;
+    }
+}
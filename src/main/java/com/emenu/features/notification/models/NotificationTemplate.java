@@ -0,0 +1,44 @@
+package com.emenu.features.notification.models;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.shared.domain.BaseUUIDEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "notification_templates", indexes = {
+    // Not unique: soft-deleted rows keep their name, uniqueness among live templates is checked on write
+    @Index(name = "idx_notif_template_key_name", columnList = "api_key_value, name")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationTemplate extends BaseUUIDEntity {
+
+    @Column(name = "api_key_value", nullable = false, length = 64)
+    private String apiKeyValue;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false)
+    private NotificationChannel channel;
+
+    @Column(name = "subject", columnDefinition = "TEXT")
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // Incremented on every content change; cached render plans are keyed by (id, version)
+    @Column(name = "template_version", nullable = false)
+    private Integer templateVersion = 1;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+}
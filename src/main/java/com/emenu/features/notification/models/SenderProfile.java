@@ -0,0 +1,72 @@
+package com.emenu.features.notification.models;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.shared.domain.BaseUUIDEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Channel credentials referenced by queued messages. API key profiles are keyed by a
+ * fingerprint of their credentials and never change; the system profiles are updated in
+ * place with the system settings and bump their profile version. API key profiles that have
+ * not been used for the retention period are deleted, so rotated credentials do not linger.
+ */
+@Entity
+@Table(name = "notification_sender_profiles", indexes = {
+    @Index(name = "idx_notif_sender_profile_key", columnList = "profile_key", unique = true)
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SenderProfile extends BaseUUIDEntity {
+
+    @Column(name = "profile_key", nullable = false, length = 200)
+    private String profileKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false)
+    private NotificationChannel channel;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    // Incremented whenever the credentials change; consumers reload cached profiles older than a message
+    @Column(name = "profile_version", nullable = false)
+    private Integer profileVersion = 1;
+
+    // Refreshed whenever the profile is resolved from the database, at least once per cache TTL while in use
+    @Column(name = "last_used_at")
+    private LocalDateTime lastUsedAt;
+
+    // ========== Telegram ==========
+    @Column(name = "telegram_bot_token", length = 500)
+    private String telegramBotToken;
+
+    // ========== Email ==========
+    @Column(name = "email_from")
+    private String emailFrom;
+
+    @Column(name = "email_smtp_host")
+    private String emailSmtpHost;
+
+    @Column(name = "email_smtp_port")
+    private Integer emailSmtpPort;
+
+    @Column(name = "email_smtp_username")
+    private String emailSmtpUsername;
+
+    @Column(name = "email_smtp_password", length = 500)
+    private String emailSmtpPassword;
+
+    @Column(name = "email_use_ssl")
+    private Boolean emailUseSSL;
+
+    @Column(name = "email_use_tls")
+    private Boolean emailUseTLS;
+}
@@ -4,7 +4,9 @@ import com.emenu.features.notification.models.ApiKey;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -31,4 +33,17 @@ public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
            "AND ak.usageResetDate IS NOT NULL " +
            "AND ak.usageResetDate < :now")
     List<ApiKey> findKeysNeedingUsageReset(LocalDateTime now);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE ApiKey ak SET ak.currentUsage = COALESCE(ak.currentUsage, 0) + :delta, " +
+           "ak.version = ak.version + 1 WHERE ak.id = :id")
+    int addUsage(@Param("id") UUID id, @Param("delta") long delta);
+
+    @Query("SELECT COALESCE(ak.currentUsage, 0) FROM ApiKey ak WHERE ak.id = :id")
+    Integer findCurrentUsage(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE ApiKey ak SET ak.currentUsage = 0, ak.usageResetDate = :nextResetDate, " +
+           "ak.version = ak.version + 1 WHERE ak.id = :id")
+    int resetUsage(@Param("id") UUID id, @Param("nextResetDate") LocalDateTime nextResetDate);
+}
@@ -0,0 +1,51 @@
+package com.emenu.features.notification.repository;
+
+import com.emenu.features.notification.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByApiKeyValueAndIdempotencyKey(String apiKeyValue, String idempotencyKey);
+
+    /**
+     * Claims the key for this request. Returns 0 if another request already holds it; while
+     * that request's transaction is open, PostgreSQL blocks here until it commits or rolls back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_idempotency_records " +
+                   "(id, version, created_at, updated_at, created_by, updated_by, is_deleted, " +
+                   "api_key_value, idempotency_key, operation, request_hash, completed, expires_at) " +
+                   "VALUES (:id, 0, :now, :now, 'SYSTEM', 'SYSTEM', false, " +
+                   ":apiKeyValue, :idempotencyKey, :operation, :requestHash, false, :expiresAt) " +
+                   "ON CONFLICT (api_key_value, idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int tryReserve(@Param("id") UUID id,
+                   @Param("apiKeyValue") String apiKeyValue,
+                   @Param("idempotencyKey") String idempotencyKey,
+                   @Param("operation") String operation,
+                   @Param("requestHash") String requestHash,
+                   @Param("now") LocalDateTime now,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord ir SET ir.completed = true, ir.responseBody = :responseBody, " +
+           "ir.version = ir.version + 1, ir.updatedAt = :now " +
+           "WHERE ir.apiKeyValue = :apiKeyValue AND ir.idempotencyKey = :idempotencyKey")
+    int complete(@Param("apiKeyValue") String apiKeyValue,
+                 @Param("idempotencyKey") String idempotencyKey,
+                 @Param("responseBody") String responseBody,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
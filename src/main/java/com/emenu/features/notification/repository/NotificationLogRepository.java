@@ -15,12 +15,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Repository
-public interface NotificationLogRepository extends JpaRepository<NotificationLog, UUID> {
+public interface NotificationLogRepository extends JpaRepository<NotificationLog, UUID>, NotificationLogRepositoryCustom {
     
     Page<NotificationLog> findByApiKeyValueAndIsDeletedFalse(String apiKeyValue, Pageable pageable);
     
     Page<NotificationLog> findByBatchIdAndIsDeletedFalse(String batchId, Pageable pageable);
     
+    boolean existsByBatchId(String batchId);
+    
     @Query("SELECT nl FROM NotificationLog nl WHERE nl.isDeleted = false " +
            "AND (:apiKeyValue IS NULL OR nl.apiKeyValue = :apiKeyValue) " +
            "AND (:channel IS NULL OR nl.channel = :channel) " +
@@ -40,4 +42,4 @@ public interface NotificationLogRepository extends JpaRepository<NotificationLog
            "AND nl.createdAt >= :startDate AND nl.isDeleted = false")
     Long countUsageForPeriod(@Param("apiKeyValue") String apiKeyValue, 
                              @Param("startDate") LocalDateTime startDate);
-}
\ No newline at end of file
+}
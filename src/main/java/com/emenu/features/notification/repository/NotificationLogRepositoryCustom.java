@@ -0,0 +1,31 @@
+package com.emenu.features.notification.repository;
+
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.models.NotificationLog;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface NotificationLogRepositoryCustom {
+
+    /**
+     * Inserts all logs with JDBC batching, assigning client-side UUIDs and audit fields
+     * to any log that does not have them yet.
+     */
+    List<NotificationLog> insertAll(List<NotificationLog> logs);
+
+    /**
+     * Moves every PENDING, PROCESSING or FAILED log among the given ids to PROCESSING in a
+     * single statement and returns the ids that were claimed. Logs that are already SENT or
+     * do not exist are left out.
+     */
+    Set<UUID> claimForDelivery(Collection<UUID> logIds);
+
+    /**
+     * Writes SENT and FAILED outcomes as two JDBC batches. Each row is only updated while the
+     * log is still PROCESSING.
+     */
+    void applyDeliveryResults(List<DeliveryResult> results);
+}
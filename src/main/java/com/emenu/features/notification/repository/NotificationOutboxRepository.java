@@ -0,0 +1,33 @@
+package com.emenu.features.notification.repository;
+
+import com.emenu.features.notification.models.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID>, NotificationOutboxRepositoryCustom {
+
+    @Query(value = "SELECT * FROM notification_outbox WHERE published = false AND attempts < :maxAttempts " +
+                   "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockUnpublished(@Param("limit") int limit, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.published = true, o.publishedAt = :now WHERE o.id IN :ids")
+    int markPublished(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.lastError = :error WHERE o.id IN :ids")
+    int markFailed(@Param("ids") Collection<UUID> ids, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.published = true AND o.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,13 @@
+package com.emenu.features.notification.repository;
+
+import com.emenu.features.notification.models.NotificationOutbox;
+
+import java.util.List;
+
+public interface NotificationOutboxRepositoryCustom {
+
+    /**
+     * Inserts all outbox rows with JDBC batching in the caller's transaction.
+     */
+    void insertAll(List<NotificationOutbox> entries);
+}
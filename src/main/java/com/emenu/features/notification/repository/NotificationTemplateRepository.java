@@ -0,0 +1,36 @@
+package com.emenu.features.notification.repository;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.models.NotificationTemplate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, UUID> {
+
+    Page<NotificationTemplate> findByApiKeyValueAndIsDeletedFalse(String apiKeyValue, Pageable pageable);
+
+    Optional<NotificationTemplate> findByIdAndApiKeyValueAndIsDeletedFalse(UUID id, String apiKeyValue);
+
+    boolean existsByApiKeyValueAndNameAndIsDeletedFalse(String apiKeyValue, String name);
+
+    Optional<TemplateHeader> findHeaderByIdAndIsDeletedFalse(UUID id);
+
+    /**
+     * Send-path view of a template without its text columns.
+     */
+    interface TemplateHeader {
+        String getApiKeyValue();
+
+        NotificationChannel getChannel();
+
+        Boolean getIsActive();
+
+        Integer getTemplateVersion();
+    }
+}
@@ -0,0 +1,75 @@
+package com.emenu.features.notification.repository;
+
+import com.emenu.features.notification.models.SenderProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SenderProfileRepository extends JpaRepository<SenderProfile, UUID> {
+
+    Optional<SenderProfile> findByProfileKey(String profileKey);
+
+    /**
+     * Creates the profile, or replaces its credentials and bumps its profile version if the
+     * stored fingerprint differs. A profile whose credentials are unchanged only has its last
+     * use refreshed.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO notification_sender_profiles " +
+                   "(id, version, created_at, updated_at, created_by, updated_by, is_deleted, " +
+                   "profile_key, channel, fingerprint, profile_version, telegram_bot_token, email_from, " +
+                   "email_smtp_host, email_smtp_port, email_smtp_username, email_smtp_password, " +
+                   "email_use_ssl, email_use_tls, last_used_at) " +
+                   "VALUES (:id, 0, :now, :now, 'SYSTEM', 'SYSTEM', false, " +
+                   ":profileKey, :channel, :fingerprint, 1, :telegramBotToken, :emailFrom, " +
+                   ":emailSmtpHost, :emailSmtpPort, :emailSmtpUsername, :emailSmtpPassword, " +
+                   ":emailUseSSL, :emailUseTLS, :now) " +
+                   "ON CONFLICT (profile_key) DO UPDATE SET " +
+                   "fingerprint = EXCLUDED.fingerprint, " +
+                   "telegram_bot_token = EXCLUDED.telegram_bot_token, " +
+                   "email_from = EXCLUDED.email_from, " +
+                   "email_smtp_host = EXCLUDED.email_smtp_host, " +
+                   "email_smtp_port = EXCLUDED.email_smtp_port, " +
+                   "email_smtp_username = EXCLUDED.email_smtp_username, " +
+                   "email_smtp_password = EXCLUDED.email_smtp_password, " +
+                   "email_use_ssl = EXCLUDED.email_use_ssl, " +
+                   "email_use_tls = EXCLUDED.email_use_tls, " +
+                   "profile_version = CASE WHEN notification_sender_profiles.fingerprint <> EXCLUDED.fingerprint " +
+                   "THEN notification_sender_profiles.profile_version + 1 ELSE notification_sender_profiles.profile_version END, " +
+                   "version = notification_sender_profiles.version + 1, " +
+                   "updated_at = CASE WHEN notification_sender_profiles.fingerprint <> EXCLUDED.fingerprint " +
+                   "THEN EXCLUDED.updated_at ELSE notification_sender_profiles.updated_at END, " +
+                   "last_used_at = EXCLUDED.last_used_at",
+           nativeQuery = true)
+    int upsert(@Param("id") UUID id,
+               @Param("profileKey") String profileKey,
+               @Param("channel") String channel,
+               @Param("fingerprint") String fingerprint,
+               @Param("telegramBotToken") String telegramBotToken,
+               @Param("emailFrom") String emailFrom,
+               @Param("emailSmtpHost") String emailSmtpHost,
+               @Param("emailSmtpPort") Integer emailSmtpPort,
+               @Param("emailSmtpUsername") String emailSmtpUsername,
+               @Param("emailSmtpPassword") String emailSmtpPassword,
+               @Param("emailUseSSL") Boolean emailUseSSL,
+               @Param("emailUseTLS") Boolean emailUseTLS,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes API key profiles not resolved since the given time. System profiles are kept;
+     * rows written before last use was tracked count from their last update.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notification_sender_profiles " +
+                   "WHERE profile_key NOT LIKE 'system:%' " +
+                   "AND COALESCE(last_used_at, updated_at) < :before",
+           nativeQuery = true)
+    int deleteUnusedBefore(@Param("before") LocalDateTime before);
+}
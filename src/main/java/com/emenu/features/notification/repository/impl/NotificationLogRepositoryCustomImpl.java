@@ -0,0 +1,154 @@
+package com.emenu.features.notification.repository.impl;
+
+import com.emenu.enums.notification.NotificationStatus;
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.models.NotificationLog;
+import com.emenu.features.notification.repository.NotificationLogRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationLogRepositoryCustomImpl implements NotificationLogRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_logs (id, version, created_at, updated_at, created_by, updated_by, " +
+            "is_deleted, batch_id, api_key_value, system_name, channel, type, status, recipient, " +
+            "subject, message, response, error_message, sent_at, retry_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_SQL =
+            "UPDATE notification_logs SET status = 'PROCESSING', version = version + 1, updated_at = ? " +
+            "WHERE id = ANY (?) AND status IN ('PENDING', 'PROCESSING', 'FAILED') " +
+            "RETURNING id";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE notification_logs SET status = 'SENT', sent_at = ?, response = ?, error_message = NULL, " +
+            "version = version + 1, updated_at = ? WHERE id = ? AND status = 'PROCESSING'";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE notification_logs SET status = 'FAILED', error_message = ?, " +
+            "retry_count = COALESCE(retry_count, 0) + 1, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND status = 'PROCESSING'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+
+    @Value("${notification.persistence.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public List<NotificationLog> insertAll(List<NotificationLog> logs) {
+        if (logs.isEmpty()) {
+            return logs;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+
+        for (NotificationLog notificationLog : logs) {
+            if (notificationLog.getId() == null) {
+                notificationLog.setId(UUID.randomUUID());
+            }
+            notificationLog.setVersion(0L);
+            notificationLog.setIsDeleted(false);
+            notificationLog.setCreatedAt(now);
+            notificationLog.setUpdatedAt(now);
+            notificationLog.setCreatedBy(auditor);
+            notificationLog.setUpdatedBy(auditor);
+        }
+
+        long start = System.nanoTime();
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, batchSize, (ps, notificationLog) -> {
+            ps.setObject(1, notificationLog.getId());
+            ps.setLong(2, notificationLog.getVersion());
+            ps.setTimestamp(3, Timestamp.valueOf(notificationLog.getCreatedAt()));
+            ps.setTimestamp(4, Timestamp.valueOf(notificationLog.getUpdatedAt()));
+            ps.setString(5, notificationLog.getCreatedBy());
+            ps.setString(6, notificationLog.getUpdatedBy());
+            ps.setBoolean(7, notificationLog.getIsDeleted());
+            ps.setString(8, notificationLog.getBatchId());
+            ps.setString(9, notificationLog.getApiKeyValue());
+            ps.setString(10, notificationLog.getSystemName());
+            ps.setString(11, notificationLog.getChannel().name());
+            ps.setString(12, notificationLog.getType().name());
+            ps.setString(13, notificationLog.getStatus().name());
+            ps.setString(14, notificationLog.getRecipient());
+            ps.setString(15, notificationLog.getSubject());
+            ps.setString(16, notificationLog.getMessage());
+            ps.setString(17, notificationLog.getResponse());
+            ps.setString(18, notificationLog.getErrorMessage());
+            ps.setTimestamp(19, notificationLog.getSentAt() != null ? Timestamp.valueOf(notificationLog.getSentAt()) : null);
+            ps.setInt(20, notificationLog.getRetryCount() != null ? notificationLog.getRetryCount() : 0);
+        });
+
+        log.debug("Inserted {} notification logs in {} ms", logs.size(), (System.nanoTime() - start) / 1_000_000);
+        return logs;
+    }
+
+    @Override
+    public Set<UUID> claimForDelivery(Collection<UUID> logIds) {
+        if (logIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<UUID> claimed = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLAIM_SQL);
+            Array ids = connection.createArrayOf("uuid", logIds.toArray());
+            ps.setTimestamp(1, now);
+            ps.setArray(2, ids);
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+
+        return new HashSet<>(claimed);
+    }
+
+    @Override
+    public void applyDeliveryResults(List<DeliveryResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Boolean, List<DeliveryResult>> byOutcome = results.stream()
+            .collect(Collectors.partitioningBy(result -> result.getStatus() == NotificationStatus.SENT));
+
+        List<DeliveryResult> sent = byOutcome.get(true);
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_SENT_SQL, sent, batchSize, (ps, result) -> {
+                ps.setTimestamp(1, result.getSentAt() != null ? Timestamp.valueOf(result.getSentAt()) : now);
+                ps.setString(2, result.getResponse());
+                ps.setTimestamp(3, now);
+                ps.setObject(4, result.getLogId());
+            });
+        }
+
+        List<DeliveryResult> failed = byOutcome.get(false);
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed, batchSize, (ps, result) -> {
+                ps.setString(1, result.getErrorMessage());
+                ps.setTimestamp(2, now);
+                ps.setObject(3, result.getLogId());
+            });
+        }
+    }
+}
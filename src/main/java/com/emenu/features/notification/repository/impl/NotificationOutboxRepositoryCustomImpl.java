@@ -0,0 +1,54 @@
+package com.emenu.features.notification.repository.impl;
+
+import com.emenu.features.notification.models.NotificationOutbox;
+import com.emenu.features.notification.repository.NotificationOutboxRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class NotificationOutboxRepositoryCustomImpl implements NotificationOutboxRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (id, version, created_at, updated_at, created_by, updated_by, " +
+            "is_deleted, topic, message_key, payload, published, attempts) " +
+            "VALUES (?, 0, ?, ?, ?, ?, false, ?, ?, ?, false, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+
+    @Value("${notification.persistence.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<NotificationOutbox> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+            if (entry.getId() == null) {
+                entry.setId(UUID.randomUUID());
+            }
+            ps.setObject(1, entry.getId());
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setString(4, auditor);
+            ps.setString(5, auditor);
+            ps.setString(6, entry.getTopic());
+            ps.setString(7, entry.getMessageKey());
+            ps.setBytes(8, entry.getPayload());
+        });
+    }
+}
@@ -1,10 +1,10 @@
 package com.emenu.features.notification.service;
 
+import com.emenu.features.notification.dto.ApiKeySnapshot;
 import com.emenu.features.notification.dto.request.CreateApiKeyRequest;
 import com.emenu.features.notification.dto.request.UpdateApiKeyRequest;
 import com.emenu.features.notification.dto.response.ApiKeyResponse;
 import com.emenu.features.notification.dto.response.UsageStatsResponse;
-import com.emenu.features.notification.models.ApiKey;
 import com.emenu.shared.dto.PaginationResponse;
 
 import java.util.UUID;
@@ -21,7 +21,9 @@ public interface ApiKeyService {
     
     void deleteApiKey(UUID id);
     
-    ApiKey validateApiKey(String apiKeyValue);
+    ApiKeySnapshot validateApiKey(String apiKeyValue);
+    
+    void recordUsage(ApiKeySnapshot apiKey, int count);
     
     UsageStatsResponse getUsageStats(String apiKeyValue);
     
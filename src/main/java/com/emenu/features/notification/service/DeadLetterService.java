@@ -0,0 +1,13 @@
+package com.emenu.features.notification.service;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.dto.response.DeadLetterReplayResponse;
+
+public interface DeadLetterService {
+
+    /**
+     * Moves up to {@code limit} dead-lettered messages of the channel back onto its delivery
+     * topic with a fresh retry budget.
+     */
+    DeadLetterReplayResponse replay(NotificationChannel channel, int limit);
+}
@@ -0,0 +1,16 @@
+package com.emenu.features.notification.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code action} once per API key and idempotency key. A repeated call with the
+     * same key returns the stored response of the first call instead of running the action
+     * again. Without a key the action simply runs.
+     */
+    <T> T execute(String apiKeyValue, String idempotencyKey, String operation,
+                  Object request, Class<T> responseType, Supplier<T> action);
+
+    int cleanupExpired();
+}
@@ -0,0 +1,14 @@
+package com.emenu.features.notification.service;
+
+import com.emenu.features.notification.dto.NotificationMessage;
+
+import java.util.List;
+
+public interface NotificationOutboxService {
+
+    void enqueue(List<NotificationMessage> messages);
+
+    int relayPending();
+
+    int cleanupPublished();
+}
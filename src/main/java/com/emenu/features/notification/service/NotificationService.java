@@ -1,16 +1,29 @@
 package com.emenu.features.notification.service;
 
+import com.emenu.enums.notification.CampaignFormat;
+import com.emenu.features.notification.dto.AcceptedNotification;
+import com.emenu.features.notification.dto.request.BulkSendNotificationRequest;
 import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.dto.response.BulkSendNotificationResponse;
 import com.emenu.features.notification.dto.response.NotificationLogResponse;
 import com.emenu.features.notification.dto.response.SendNotificationResponse;
 import com.emenu.shared.dto.PaginationResponse;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 public interface NotificationService {
     
     SendNotificationResponse sendNotification(String apiKey, SendNotificationRequest request);
     
+    BulkSendNotificationResponse sendBulkNotification(String apiKey, BulkSendNotificationRequest request);
+    
+    SendNotificationResponse sendCampaign(String apiKey, InputStream body, CampaignFormat format);
+    
+    SendNotificationResponse acceptNotification(String apiKey, SendNotificationRequest request);
+    
+    void expandAcceptedBatch(AcceptedNotification accepted);
+    
     PaginationResponse<NotificationLogResponse> getMyLogs(String apiKey, Integer pageNo, Integer pageSize);
     
     PaginationResponse<NotificationLogResponse> getBatchLogs(String batchId, Integer pageNo, Integer pageSize);
@@ -0,0 +1,28 @@
+package com.emenu.features.notification.service;
+
+import com.emenu.features.notification.dto.request.CreateTemplateRequest;
+import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.dto.request.UpdateTemplateRequest;
+import com.emenu.features.notification.dto.response.TemplateResponse;
+import com.emenu.shared.dto.PaginationResponse;
+
+import java.util.UUID;
+
+public interface NotificationTemplateService {
+    
+    TemplateResponse createTemplate(String apiKey, CreateTemplateRequest request);
+    
+    PaginationResponse<TemplateResponse> getTemplates(String apiKey, Integer pageNo, Integer pageSize);
+    
+    TemplateResponse getTemplateById(String apiKey, UUID id);
+    
+    TemplateResponse updateTemplate(String apiKey, UUID id, UpdateTemplateRequest request);
+    
+    void deleteTemplate(String apiKey, UUID id);
+    
+    /**
+     * Fills in the request's subject and message from its template, if it references one.
+     * Requests without a template must carry a message.
+     */
+    void applyTemplate(String apiKeyValue, SendNotificationRequest request);
+}
@@ -0,0 +1,30 @@
+package com.emenu.features.notification.service;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
+import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.models.SystemNotificationSettings;
+
+import java.util.List;
+
+public interface SenderProfileService {
+
+    /**
+     * Returns the profile holding each request's channel credentials, one per request in
+     * order, creating profiles on first use. Requests with the same credentials under one
+     * API key share a profile, and each distinct profile is written at most once.
+     */
+    List<SenderProfileSnapshot> resolveAll(String apiKeyValue, List<SendNotificationRequest> requests);
+
+    /**
+     * Returns the profile for the system settings of one channel, bumping its profile
+     * version if the settings changed since it was last written.
+     */
+    SenderProfileSnapshot resolveSystem(SystemNotificationSettings settings, NotificationChannel channel);
+
+    /**
+     * Deletes API key profiles that have not been used for the retention period, which
+     * removes the credentials of rotated passwords and tokens. Returns the number deleted.
+     */
+    int retireUnused();
+}
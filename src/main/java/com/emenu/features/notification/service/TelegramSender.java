@@ -0,0 +1,15 @@
+package com.emenu.features.notification.service;
+
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.dto.NotificationMessage;
+import reactor.core.publisher.Mono;
+
+public interface TelegramSender {
+
+    /**
+     * Sends the message, waiting for rate limits and Telegram's retry_after no later than the
+     * deadline (a {@link System#nanoTime()} value). A send that would have to wait longer
+     * completes with a retryable failure instead.
+     */
+    Mono<DeliveryResult> send(NotificationMessage message, long deadline);
+}
@@ -4,6 +4,9 @@ import com.emenu.exception.custom.AlreadyExistsException;
 import com.emenu.exception.custom.NotFoundException;
 import com.emenu.exception.custom.UnauthorizedException;
 import com.emenu.exception.custom.ValidationException;
+import com.emenu.features.notification.cache.ApiKeyCache;
+import com.emenu.features.notification.cache.ApiKeyUsageTracker;
+import com.emenu.features.notification.dto.ApiKeySnapshot;
 import com.emenu.features.notification.dto.request.CreateApiKeyRequest;
 import com.emenu.features.notification.dto.request.UpdateApiKeyRequest;
 import com.emenu.features.notification.dto.response.ApiKeyResponse;
@@ -35,6 +38,8 @@ public class ApiKeyServiceImpl implements ApiKeyService {
 
     private final ApiKeyRepository apiKeyRepository;
     private final ApiKeyMapper apiKeyMapper;
+    private final ApiKeyCache apiKeyCache;
+    private final ApiKeyUsageTracker usageTracker;
 
     private static final int API_KEY_LENGTH = 32;
 
@@ -131,8 +136,12 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         if (request.getMonthlyLimit() != null) {
             apiKey.setMonthlyLimit(request.getMonthlyLimit());
         }
+        if (request.getDeliveryWeight() != null) {
+            apiKey.setDeliveryWeight(request.getDeliveryWeight());
+        }
 
         ApiKey updatedApiKey = apiKeyRepository.save(apiKey);
+        apiKeyCache.evict(apiKey.getApiKeyValue());
         log.info("API key updated successfully: {}", id);
 
         return apiKeyMapper.toResponse(updatedApiKey);
@@ -147,16 +156,18 @@ public class ApiKeyServiceImpl implements ApiKeyService {
 
         apiKey.setIsDeleted(true);
         apiKeyRepository.save(apiKey);
+        apiKeyCache.evict(apiKey.getApiKeyValue());
 
         log.info("API key deleted successfully: {}", id);
     }
 
     @Override
-    public ApiKey validateApiKey(String apiKeyValue) {
-        ApiKey apiKey = apiKeyRepository.findByApiKeyValueAndIsDeletedFalse(apiKeyValue)
+    @Transactional(readOnly = true)
+    public ApiKeySnapshot validateApiKey(String apiKeyValue) {
+        ApiKeySnapshot apiKey = apiKeyCache.get(apiKeyValue)
                 .orElseThrow(() -> new UnauthorizedException("Invalid API key"));
 
-        if (!Boolean.TRUE.equals(apiKey.getIsActive())) {
+        if (!apiKey.isActive()) {
             throw new UnauthorizedException("API key is inactive");
         }
 
@@ -164,13 +175,14 @@ public class ApiKeyServiceImpl implements ApiKeyService {
             throw new UnauthorizedException("API key has expired");
         }
 
-        if (apiKey.hasReachedLimit()) {
-            throw new UnauthorizedException("API key has reached monthly usage limit");
-        }
-
         return apiKey;
     }
 
+    @Override
+    public void recordUsage(ApiKeySnapshot apiKey, int count) {
+        usageTracker.reserve(apiKey, count);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UsageStatsResponse getUsageStats(String apiKeyValue) {
@@ -178,7 +190,7 @@ public class ApiKeyServiceImpl implements ApiKeyService {
                 .orElseThrow(() -> new NotFoundException("API key not found"));
 
         boolean isUnlimited = apiKey.getMonthlyLimit() == null;
-        int currentUsage = apiKey.getCurrentUsage() != null ? apiKey.getCurrentUsage() : 0;
+        int currentUsage = (int) usageTracker.currentUsage(apiKey.getId());
         int remainingQuota = isUnlimited ? 0 : apiKey.getMonthlyLimit() - currentUsage;
         double usagePercentage = isUnlimited ? 0.0 :
                 (currentUsage * 100.0) / apiKey.getMonthlyLimit();
@@ -201,8 +213,10 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         apiKeyRepository.findAllByIsDeletedFalse().forEach(apiKey -> {
             if (apiKey.getUsageResetDate() != null &&
                     !now.isBefore(apiKey.getUsageResetDate())) {
-                apiKey.resetUsage();
-                apiKeyRepository.save(apiKey);
+                // Direct update so a concurrent usage flush cannot cause a version conflict
+                apiKeyRepository.resetUsage(apiKey.getId(), now.plusMonths(1));
+                apiKeyCache.evict(apiKey.getApiKeyValue());
+                usageTracker.reset(apiKey.getId());
                 log.info("Usage reset for API key: {}", apiKey.getSystemName());
             }
         });
@@ -0,0 +1,137 @@
+package com.emenu.features.notification.service.impl;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
+import com.emenu.exception.custom.ValidationException;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.dto.response.DeadLetterReplayResponse;
+import com.emenu.features.notification.kafka.NotificationMessageCodec;
+import com.emenu.features.notification.kafka.NotificationRetryRouter;
+import com.emenu.features.notification.service.DeadLetterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replays dead letters with a short-lived consumer in its own group, so the replay position
+ * is tracked in Kafka and every dead letter is replayed at most once. Offsets are committed
+ * only after the replayed messages are acknowledged by the broker.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterServiceImpl implements DeadLetterService {
+
+    private static final int MAX_EMPTY_POLLS = 3;
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final NotificationRetryRouter retryRouter;
+    private final NotificationMessageCodec messageCodec;
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${notification.retry.dlt-replay.max-messages:10000}")
+    private int maxMessages;
+
+    @Value("${notification.retry.dlt-replay.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+
+    @Value("${notification.outbox.publish-timeout-ms:10000}")
+    private long publishTimeoutMs;
+
+    @Override
+    public DeadLetterReplayResponse replay(NotificationChannel channel, int limit) {
+        if (limit < 1 || limit > maxMessages) {
+            throw new ValidationException("Limit must be between 1 and " + maxMessages);
+        }
+        if (!replayLock.tryLock()) {
+            throw new ValidationException("A dead-letter replay is already running");
+        }
+
+        String targetTopic = retryRouter.baseTopic(channel);
+        String deadLetterTopic = retryRouter.dltTopic(targetTopic);
+        try (Consumer<String, byte[]> consumer = createConsumer(limit)) {
+            consumer.subscribe(List.of(deadLetterTopic));
+
+            int replayed = 0;
+            int skipped = 0;
+            int emptyPolls = 0;
+            while (replayed + skipped < limit && emptyPolls < MAX_EMPTY_POLLS) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+                if (records.isEmpty()) {
+                    emptyPolls++;
+                    continue;
+                }
+                emptyPolls = 0;
+
+                List<CompletableFuture<?>> futures = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (replayed + skipped >= limit) {
+                        break;
+                    }
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                                new OffsetAndMetadata(record.offset() + 1));
+                    try {
+                        NotificationMessage message = messageCodec.decode(record.value());
+                        message.setRetryCount(0);
+                        NotificationPriority priority = message.getPriority() != null
+                            ? message.getPriority() : NotificationPriority.NORMAL;
+                        futures.add(kafkaTemplate.send(priority.topic(targetTopic), record.key(), messageCodec.encode(message)));
+                        replayed++;
+                    } catch (Exception e) {
+                        log.error("Skipping undecodable dead letter - Partition: {}, Offset: {}: {}",
+                                  record.partition(), record.offset(), e.getMessage());
+                        skipped++;
+                    }
+                }
+
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+                consumer.commitSync(offsets);
+            }
+
+            log.info("Replayed {} dead letters from {} to {}, skipped {}", replayed, deadLetterTopic, targetTopic, skipped);
+            return DeadLetterReplayResponse.builder()
+                .channel(channel)
+                .deadLetterTopic(deadLetterTopic)
+                .targetTopic(targetTopic)
+                .replayed(replayed)
+                .skipped(skipped)
+                .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Dead-letter replay failed: " + e.getMessage(), e);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private Consumer<String, byte[]> createConsumer(int limit) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(limit, 500)));
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return consumerFactory.createConsumer(groupId + "-dlt-replay", "dlt-replay", null, overrides);
+    }
+}
@@ -0,0 +1,175 @@
+package com.emenu.features.notification.service.impl;
+
+import com.emenu.exception.custom.AlreadyExistsException;
+import com.emenu.exception.custom.ValidationException;
+import com.emenu.features.notification.models.IdempotencyRecord;
+import com.emenu.features.notification.repository.IdempotencyRecordRepository;
+import com.emenu.features.notification.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys are reserved with an INSERT ... ON CONFLICT DO NOTHING in the same
+ * transaction as the send itself, so a failed send releases the key and a concurrent
+ * duplicate waits on the unique index until the first request has committed. Completed
+ * responses are kept in a Caffeine front cache, so most replays never reach the database.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> responses;
+    private final long ttlHours;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository recordRepository,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.idempotency.cache-max-size:100000}") long cacheMaxSize,
+                                  @Value("${notification.idempotency.ttl-hours:24}") long ttlHours) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotencyResponses");
+    }
+
+    @Override
+    @Transactional
+    public <T> T execute(String apiKeyValue, String idempotencyKey, String operation,
+                         Object request, Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = apiKeyValue + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        StoredResponse cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, operation, requestHash, responseType);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!reserve(apiKeyValue, idempotencyKey, operation, requestHash, now)) {
+            IdempotencyRecord existing = recordRepository.findByApiKeyValueAndIdempotencyKey(apiKeyValue, idempotencyKey)
+                    .orElseThrow(() -> new AlreadyExistsException("Request with this Idempotency-Key is still being processed"));
+            if (!Boolean.TRUE.equals(existing.getCompleted())) {
+                throw new AlreadyExistsException("Request with this Idempotency-Key is still being processed");
+            }
+
+            StoredResponse stored = new StoredResponse(existing.getOperation(), existing.getRequestHash(), existing.getResponseBody());
+            responses.put(cacheKey, stored);
+            return replay(stored, operation, requestHash, responseType);
+        }
+
+        T response = action.get();
+
+        String body = serialize(response);
+        recordRepository.complete(apiKeyValue, idempotencyKey, body, LocalDateTime.now());
+        cacheAfterCommit(cacheKey, new StoredResponse(operation, requestHash, body));
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public int cleanupExpired() {
+        return recordRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    // ===== HELPER METHODS =====
+
+    private boolean reserve(String apiKeyValue, String idempotencyKey, String operation,
+                            String requestHash, LocalDateTime now) {
+        LocalDateTime expiresAt = now.plusHours(ttlHours);
+        if (recordRepository.tryReserve(UUID.randomUUID(), apiKeyValue, idempotencyKey,
+                operation, requestHash, now, expiresAt) == 1) {
+            return true;
+        }
+
+        // An expired record that has not been cleaned up yet does not block the key
+        Optional<IdempotencyRecord> existing = recordRepository.findByApiKeyValueAndIdempotencyKey(apiKeyValue, idempotencyKey);
+        if (existing.isPresent() && existing.get().getExpiresAt().isBefore(now)) {
+            recordRepository.delete(existing.get());
+            recordRepository.flush();
+            return recordRepository.tryReserve(UUID.randomUUID(), apiKeyValue, idempotencyKey,
+                    operation, requestHash, now, expiresAt) == 1;
+        }
+        return false;
+    }
+
+    private <T> T replay(StoredResponse stored, String operation, String requestHash, Class<T> responseType) {
+        if (!stored.operation().equals(operation) || !stored.requestHash().equals(requestHash)) {
+            throw new ValidationException("Idempotency-Key was already used for a different request");
+        }
+        log.debug("Replaying stored response for idempotent {} request", operation);
+        try {
+            return objectMapper.readValue(stored.responseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored idempotent response", e);
+        }
+    }
+
+    private void cacheAfterCommit(String cacheKey, StoredResponse stored) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responses.put(cacheKey, stored);
+                }
+            });
+        } else {
+            responses.put(cacheKey, stored);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store idempotent response", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(serialize(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record StoredResponse(String operation, String requestHash, String responseBody) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.emenu.features.notification.service.impl;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.kafka.NotificationKeyResolver;
+import com.emenu.features.notification.kafka.NotificationMessageCodec;
+import com.emenu.features.notification.kafka.NotificationProducer;
+import com.emenu.features.notification.models.NotificationOutbox;
+import com.emenu.features.notification.repository.NotificationLogRepository;
+import com.emenu.features.notification.repository.NotificationOutboxRepository;
+import com.emenu.features.notification.service.NotificationOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows that fail to publish are retried on later polls until they have used
+ * {@code notification.outbox.max-attempts}; after that they stay unpublished in the table for
+ * inspection, are skipped by the relay and their notification logs are marked FAILED. Resetting
+ * a row's attempts to 0 queues it again.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationLogRepository logRepository;
+    private final NotificationProducer notificationProducer;
+    private final NotificationMessageCodec messageCodec;
+    private final NotificationKeyResolver keyResolver;
+    private final Counter exhaustedCounter;
+
+    @Value("${notification.kafka.topics.telegram}")
+    private String telegramTopic;
+
+    @Value("${notification.kafka.topics.email}")
+    private String emailTopic;
+
+    @Value("${notification.outbox.relay-batch-size:500}")
+    private int relayBatchSize;
+
+    @Value("${notification.outbox.publish-timeout-ms:10000}")
+    private long publishTimeoutMs;
+
+    @Value("${notification.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${notification.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    public NotificationOutboxServiceImpl(NotificationOutboxRepository outboxRepository,
+                                         NotificationLogRepository logRepository,
+                                         NotificationProducer notificationProducer,
+                                         NotificationMessageCodec messageCodec,
+                                         NotificationKeyResolver keyResolver,
+                                         MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.logRepository = logRepository;
+        this.notificationProducer = notificationProducer;
+        this.messageCodec = messageCodec;
+        this.keyResolver = keyResolver;
+        this.exhaustedCounter = Counter.builder("notification.outbox.exhausted")
+                .description("Outbox messages that used up their publish attempts and were not published")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(List<NotificationMessage> messages) {
+        List<NotificationOutbox> entries = new ArrayList<>(messages.size());
+        for (NotificationMessage message : messages) {
+            entries.add(NotificationOutbox.of(resolveTopic(message), keyResolver.keyOf(message), messageCodec.encode(message)));
+        }
+        outboxRepository.insertAll(entries);
+    }
+
+    @Override
+    @Transactional
+    public int relayPending() {
+        List<NotificationOutbox> entries = outboxRepository.lockUnpublished(relayBatchSize, maxAttempts);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(entries.size());
+        for (NotificationOutbox entry : entries) {
+            futures.add(notificationProducer.publish(entry.getTopic(), entry.getMessageKey(), entry.getPayload()));
+        }
+
+        // Wait for the broker acks of the whole batch before marking anything as published
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Outbox batch partially published: {}", e.getMessage());
+        }
+
+        List<UUID> publishedIds = new ArrayList<>();
+        Map<String, List<UUID>> failedIdsByError = new LinkedHashMap<>();
+        List<NotificationOutbox> exhausted = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            NotificationOutbox entry = entries.get(i);
+            CompletableFuture<?> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                publishedIds.add(entry.getId());
+                continue;
+            }
+            String error = publishError(future);
+            entry.setLastError(error);
+            failedIdsByError.computeIfAbsent(error, key -> new ArrayList<>()).add(entry.getId());
+            if (entry.getAttempts() + 1 >= maxAttempts) {
+                exhausted.add(entry);
+            }
+        }
+
+        if (!publishedIds.isEmpty()) {
+            outboxRepository.markPublished(publishedIds, LocalDateTime.now());
+        }
+        if (!failedIdsByError.isEmpty()) {
+            int failed = 0;
+            for (Map.Entry<String, List<UUID>> failure : failedIdsByError.entrySet()) {
+                outboxRepository.markFailed(failure.getValue(), failure.getKey());
+                failed += failure.getValue().size();
+            }
+            log.error("Failed to publish {} outbox messages, {} of them out of attempts", failed, exhausted.size());
+        }
+        if (!exhausted.isEmpty()) {
+            failExhausted(exhausted);
+        }
+
+        log.debug("Outbox relay published {} messages", publishedIds.size());
+        return publishedIds.size();
+    }
+
+    @Override
+    @Transactional
+    public int cleanupPublished() {
+        return outboxRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    // ===== HELPER METHODS =====
+
+    private String publishError(CompletableFuture<?> future) {
+        if (!future.isDone()) {
+            return "Kafka publish timed out";
+        }
+        try {
+            future.join();
+            return "Kafka publish failed";
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return "Kafka publish failed: " + cause.getMessage();
+        } catch (Exception e) {
+            return "Kafka publish failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Marks the logs of rows that will not be relayed again as FAILED, so they do not stay
+     * PENDING forever.
+     */
+    private void failExhausted(List<NotificationOutbox> exhausted) {
+        List<DeliveryResult> results = new ArrayList<>(exhausted.size());
+        for (NotificationOutbox entry : exhausted) {
+            try {
+                NotificationMessage message = messageCodec.decode(entry.getPayload());
+                results.add(DeliveryResult.failedPermanently(message.getLogId(),
+                    "Not published after " + maxAttempts + " attempts: " + entry.getLastError()));
+            } catch (Exception e) {
+                log.error("Cannot decode exhausted outbox message {}: {}", entry.getId(), e.getMessage());
+            }
+        }
+
+        List<UUID> logIds = results.stream().map(DeliveryResult::getLogId).toList();
+        if (!logIds.isEmpty()) {
+            // Results are only applied to PROCESSING logs; these were never delivered
+            logRepository.claimForDelivery(logIds);
+            logRepository.applyDeliveryResults(results);
+        }
+        exhaustedCounter.increment(exhausted.size());
+        log.error("Gave up on {} outbox messages after {} publish attempts", exhausted.size(), maxAttempts);
+    }
+
+    private String resolveTopic(NotificationMessage message) {
+        String baseTopic = message.getChannel() == NotificationChannel.TELEGRAM ? telegramTopic : emailTopic;
+        NotificationPriority priority = message.getPriority() != null ? message.getPriority() : NotificationPriority.NORMAL;
+        return priority.topic(baseTopic);
+    }
+}
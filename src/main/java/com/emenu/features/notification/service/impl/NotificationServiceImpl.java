@@ -1,34 +1,64 @@
 package com.emenu.features.notification.service.impl;
 
+import com.emenu.enums.notification.CampaignFormat;
 import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
 import com.emenu.enums.notification.NotificationStatus;
 import com.emenu.exception.custom.NotFoundException;
+import com.emenu.exception.custom.UnauthorizedException;
 import com.emenu.exception.custom.ValidationException;
+import com.emenu.features.notification.dto.AcceptedNotification;
+import com.emenu.features.notification.dto.ApiKeySnapshot;
 import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
+import com.emenu.features.notification.dto.request.BulkSendNotificationRequest;
+import com.emenu.features.notification.dto.request.EmailConfig;
 import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.dto.request.TelegramConfig;
+import com.emenu.features.notification.dto.response.BulkSendNotificationResponse;
 import com.emenu.features.notification.dto.response.NotificationLogResponse;
 import com.emenu.features.notification.dto.response.SendNotificationResponse;
-import com.emenu.features.notification.kafka.NotificationProducer;
+import com.emenu.features.notification.ingest.IngestPipeline;
 import com.emenu.features.notification.mapper.NotificationLogMapper;
-import com.emenu.features.notification.models.ApiKey;
+import com.emenu.features.notification.metrics.NotificationMetrics;
 import com.emenu.features.notification.models.NotificationLog;
-import com.emenu.features.notification.repository.ApiKeyRepository;
 import com.emenu.features.notification.repository.NotificationLogRepository;
 import com.emenu.features.notification.service.ApiKeyService;
+import com.emenu.features.notification.service.NotificationOutboxService;
 import com.emenu.features.notification.service.NotificationService;
+import com.emenu.features.notification.service.NotificationTemplateService;
+import com.emenu.features.notification.service.SenderProfileService;
 import com.emenu.shared.dto.PaginationResponse;
 import com.emenu.shared.pagination.PaginationUtils;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,21 +67,40 @@ import java.util.UUID;
 public class NotificationServiceImpl implements NotificationService {
 
     private final ApiKeyService apiKeyService;
-    private final ApiKeyRepository apiKeyRepository;
+    private final NotificationTemplateService templateService;
     private final NotificationLogRepository logRepository;
-    private final NotificationProducer notificationProducer;
+    private final NotificationOutboxService outboxService;
+    private final SenderProfileService senderProfileService;
     private final NotificationLogMapper logMapper;
+    private final NotificationMetrics metrics;
+    private final IngestPipeline ingestPipeline;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${notification.gateway.max-recipients-per-request:100}")
     private int maxRecipients;
 
+    @Value("${notification.gateway.max-bulk-items:1000}")
+    private int maxBulkItems;
+
+    @Value("${notification.gateway.max-recipients-per-bulk:10000}")
+    private int maxBulkRecipients;
+
+    @Value("${notification.campaign.chunk-size:1000}")
+    private int campaignChunkSize;
+
     @Override
     public SendNotificationResponse sendNotification(String apiKeyValue, SendNotificationRequest request) {
         log.info("Processing notification request - Channel: {}, Type: {}", 
                  request.getChannel(), request.getType());
+        long start = System.nanoTime();
 
         // Validate API key
-        ApiKey apiKey = apiKeyService.validateApiKey(apiKeyValue);
+        ApiKeySnapshot apiKey = apiKeyService.validateApiKey(apiKeyValue);
+
+        // Resolve the message body from its template, if any
+        templateService.applyTemplate(apiKey.getApiKeyValue(), request);
 
         // Validate configuration
         List<String> recipients = validateAndGetRecipients(request);
@@ -60,37 +109,194 @@ public class NotificationServiceImpl implements NotificationService {
             throw new ValidationException("Maximum " + maxRecipients + " recipients per request");
         }
 
+        // Reserve usage for every recipient; fails if the monthly limit would be exceeded
+        apiKeyService.recordUsage(apiKey, recipients.size());
+
         // Generate batch ID
         String batchId = UUID.randomUUID().toString();
-        List<UUID> logIds = new ArrayList<>();
+        List<UUID> logIds = createBatch(apiKey.getApiKeyValue(), apiKey.getSystemName(),
+                request, recipients, batchId, null);
 
-        // Create logs and send to Kafka for each recipient
-        for (String recipient : recipients) {
-            NotificationLog notificationLog = createNotificationLog(apiKey, request, recipient, batchId);
-            NotificationLog savedLog = logRepository.save(notificationLog);
-            logIds.add(savedLog.getId());
+        log.info("Notification batch created - Batch: {}, Recipients: {}", batchId, recipients.size());
+        metrics.record(NotificationMetrics.Stage.INGEST, request.getChannel(), request.getType(),
+            apiKey.getSystemName(), start);
+
+        return SendNotificationResponse.builder()
+            .batchId(batchId)
+            .logIds(logIds)
+            .channel(request.getChannel())
+            .status(NotificationStatus.PENDING)
+            .totalRecipients(recipients.size())
+            .message("Notifications queued successfully")
+            .build();
+    }
 
-            // Build message for Kafka
-            NotificationMessage message = buildNotificationMessage(
-                savedLog, apiKey, request, recipient, batchId
-            );
+    @Override
+    public BulkSendNotificationResponse sendBulkNotification(String apiKeyValue, BulkSendNotificationRequest request) {
+        List<SendNotificationRequest> items = request.getItems();
+        log.info("Processing bulk notification request - Items: {}", items.size());
 
-            log.info("Hi Hourng kak");
+        if (items.size() > maxBulkItems) {
+            throw new ValidationException("Maximum " + maxBulkItems + " items per bulk request");
+        }
 
-            // Send to appropriate Kafka topic
-            if (request.getChannel() == NotificationChannel.TELEGRAM) {
-                notificationProducer.sendTelegramNotification(message);
-            } else if (request.getChannel() == NotificationChannel.EMAIL) {
-                notificationProducer.sendEmailNotification(message);
+        // Validate API key once for the whole request
+        ApiKeySnapshot apiKey = apiKeyService.validateApiKey(apiKeyValue);
+
+        // Validate every item, keeping per-item errors instead of failing the request
+        List<BulkSendNotificationResponse.ItemResult> results = new ArrayList<>(items.size());
+        List<PreparedBatch> batches = new ArrayList<>();
+        int totalRecipients = 0;
+        for (int index = 0; index < items.size(); index++) {
+            SendNotificationRequest item = items.get(index);
+            BulkSendNotificationResponse.ItemResult result = BulkSendNotificationResponse.ItemResult.builder()
+                .index(index)
+                .channel(item != null ? item.getChannel() : null)
+                .build();
+            results.add(result);
+
+            try {
+                List<String> recipients = validateBulkItem(apiKey, item);
+                PreparedBatch batch = new PreparedBatch(item, recipients, UUID.randomUUID().toString(), null);
+                batch.result = result;
+                batches.add(batch);
+                totalRecipients += recipients.size();
+            } catch (ValidationException | NotFoundException e) {
+                result.setError(e.getMessage());
             }
+        }
 
-            // Increment usage
-            apiKey.incrementUsage();
+        if (totalRecipients > maxBulkRecipients) {
+            throw new ValidationException("Maximum " + maxBulkRecipients + " recipients per bulk request");
         }
 
-        apiKeyRepository.save(apiKey);
+        if (!batches.isEmpty()) {
+            // One quota reservation and one insert/enqueue for all valid items
+            apiKeyService.recordUsage(apiKey, totalRecipients);
+            createBatches(apiKey.getApiKeyValue(), apiKey.getSystemName(), batches);
 
-        log.info("Notification batch created - Batch: {}, Recipients: {}", batchId, recipients.size());
+            for (PreparedBatch batch : batches) {
+                batch.result.setBatchId(batch.batchId);
+                batch.result.setLogIds(batch.savedLogIds);
+            }
+        }
+
+        log.info("Bulk notification request processed - Accepted: {}, Rejected: {}, Recipients: {}",
+                 batches.size(), items.size() - batches.size(), totalRecipients);
+
+        return BulkSendNotificationResponse.builder()
+            .totalItems(items.size())
+            .acceptedItems(batches.size())
+            .rejectedItems(items.size() - batches.size())
+            .totalRecipients(totalRecipients)
+            .results(results)
+            .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SendNotificationResponse sendCampaign(String apiKeyValue, InputStream body, CampaignFormat format) {
+        log.info("Processing campaign upload - Format: {}", format);
+
+        ApiKeySnapshot apiKey = apiKeyService.validateApiKey(apiKeyValue);
+        String batchId = UUID.randomUUID().toString();
+
+        long queued = 0;
+        long skipped = 0;
+        String stopReason = null;
+        SendNotificationRequest header = null;
+        List<String> chunk = new ArrayList<>(campaignChunkSize);
+
+        try (RecipientReader reader = openCampaignReader(body, format)) {
+            header = reader.header();
+            validateCampaignHeader(header);
+            if (header.getPriority() == null) {
+                header.setPriority(NotificationPriority.LOW);
+            }
+            templateService.applyTemplate(apiKey.getApiKeyValue(), header);
+
+            String recipient;
+            while ((recipient = reader.next()) != null) {
+                if (recipient.isBlank()) {
+                    skipped++;
+                    continue;
+                }
+                chunk.add(recipient.trim());
+                if (chunk.size() == campaignChunkSize) {
+                    queued += writeCampaignChunk(apiKey, header, batchId, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                queued += writeCampaignChunk(apiKey, header, batchId, chunk);
+            }
+        } catch (IOException e) {
+            if (header == null) {
+                throw new ValidationException("Invalid campaign header: " + e.getMessage());
+            }
+            stopReason = "malformed input after " + (queued + chunk.size()) + " recipients: " + e.getMessage();
+        } catch (UnauthorizedException e) {
+            if (queued == 0) {
+                throw e;
+            }
+            stopReason = e.getMessage();
+        }
+
+        if (stopReason != null) {
+            log.warn("Campaign {} stopped after {} recipients - {}", batchId, queued, stopReason);
+        }
+        log.info("Campaign queued - Batch: {}, Recipients: {}, Skipped: {}", batchId, queued, skipped);
+
+        return SendNotificationResponse.builder()
+            .batchId(batchId)
+            .channel(header.getChannel())
+            .status(NotificationStatus.PENDING)
+            .totalRecipients((int) queued)
+            .message(stopReason == null
+                ? "Campaign queued successfully"
+                : "Campaign stopped: " + stopReason)
+            .build();
+    }
+
+    @Override
+    public SendNotificationResponse acceptNotification(String apiKeyValue, SendNotificationRequest request) {
+        log.info("Accepting notification request - Channel: {}, Type: {}",
+                 request.getChannel(), request.getType());
+        long start = System.nanoTime();
+
+        ApiKeySnapshot apiKey = apiKeyService.validateApiKey(apiKeyValue);
+        templateService.applyTemplate(apiKey.getApiKeyValue(), request);
+        List<String> recipients = validateAndGetRecipients(request);
+
+        if (recipients.size() > maxRecipients) {
+            throw new ValidationException("Maximum " + maxRecipients + " recipients per request");
+        }
+
+        // Released by the rollback if anything below fails; the journal entry is then discarded
+        apiKeyService.recordUsage(apiKey, recipients.size());
+        SenderProfileSnapshot profile = senderProfileService.resolveAll(apiKey.getApiKeyValue(), List.of(request)).get(0);
+
+        String batchId = UUID.randomUUID().toString();
+        List<UUID> logIds = new ArrayList<>(recipients.size());
+        for (int i = 0; i < recipients.size(); i++) {
+            logIds.add(UUID.randomUUID());
+        }
+
+        AcceptedNotification accepted = AcceptedNotification.builder()
+            .batchId(batchId)
+            .apiKeyValue(apiKey.getApiKeyValue())
+            .systemName(apiKey.getSystemName())
+            .logIds(logIds)
+            .request(withoutCredentials(request))
+            .senderProfileId(profile.getId())
+            .senderProfileVersion(profile.getProfileVersion())
+            .acceptedAt(LocalDateTime.now())
+            .build();
+        ingestPipeline.accept(accepted);
+
+        log.info("Notification batch accepted - Batch: {}, Recipients: {}", batchId, recipients.size());
+        metrics.record(NotificationMetrics.Stage.INGEST, request.getChannel(), request.getType(),
+            apiKey.getSystemName(), start);
 
         return SendNotificationResponse.builder()
             .batchId(batchId)
@@ -98,10 +304,35 @@ public class NotificationServiceImpl implements NotificationService {
             .channel(request.getChannel())
             .status(NotificationStatus.PENDING)
             .totalRecipients(recipients.size())
-            .message("Notifications queued successfully")
+            .message("Notifications accepted for delivery")
             .build();
     }
 
+    @Override
+    public void expandAcceptedBatch(AcceptedNotification accepted) {
+        if (logRepository.existsByBatchId(accepted.getBatchId())) {
+            log.debug("Accepted batch already expanded: {}", accepted.getBatchId());
+            return;
+        }
+
+        SendNotificationRequest request = accepted.getRequest();
+        PreparedBatch batch;
+        if (accepted.getSenderProfileId() == null) {
+            batch = new PreparedBatch(request, validateAndGetRecipients(request), accepted.getBatchId(), accepted.getLogIds());
+        } else {
+            batch = new PreparedBatch(request, recipientsOf(request), accepted.getBatchId(), accepted.getLogIds());
+            batch.profile = SenderProfileSnapshot.builder()
+                .id(accepted.getSenderProfileId())
+                .profileVersion(accepted.getSenderProfileVersion())
+                .channel(request.getChannel())
+                .build();
+        }
+        createBatches(accepted.getApiKeyValue(), accepted.getSystemName(), List.of(batch));
+
+        log.info("Accepted batch expanded - Batch: {}, Recipients: {}",
+                 accepted.getBatchId(), accepted.getLogIds().size());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<NotificationLogResponse> getMyLogs(
@@ -130,6 +361,195 @@ public class NotificationServiceImpl implements NotificationService {
         return logMapper.toResponse(notificationLog);
     }
 
+    private List<UUID> createBatch(String apiKeyValue, String systemName, SendNotificationRequest request,
+                                   List<String> recipients, String batchId, List<UUID> logIds) {
+        PreparedBatch batch = new PreparedBatch(request, recipients, batchId, logIds);
+        createBatches(apiKeyValue, systemName, List.of(batch));
+        return batch.savedLogIds;
+    }
+
+    /**
+     * Inserts one log per recipient of every batch in a single batched insert and queues the
+     * matching messages in the outbox with one enqueue. Log ids are pre-assigned when a batch
+     * carries them, otherwise generated on insert. Messages reference the batch's sender
+     * profile instead of carrying its credentials; profiles not already set are resolved here.
+     */
+    private void createBatches(String apiKeyValue, String systemName, List<PreparedBatch> batches) {
+        int total = batches.stream().mapToInt(batch -> batch.recipients.size()).sum();
+
+        // Create all logs in one batched insert
+        List<NotificationLog> notificationLogs = new ArrayList<>(total);
+        for (PreparedBatch batch : batches) {
+            for (int i = 0; i < batch.recipients.size(); i++) {
+                NotificationLog notificationLog = createNotificationLog(
+                    apiKeyValue, systemName, batch.request, batch.recipients.get(i), batch.batchId);
+                if (batch.logIds != null) {
+                    notificationLog.setId(batch.logIds.get(i));
+                }
+                notificationLogs.add(notificationLog);
+            }
+        }
+        long insertStart = System.nanoTime();
+        logRepository.insertAll(notificationLogs);
+        SendNotificationRequest first = batches.get(0).request;
+        boolean uniform = batches.stream().allMatch(batch ->
+            batch.request.getChannel() == first.getChannel() && batch.request.getType() == first.getType());
+        metrics.record(NotificationMetrics.Stage.LOG_INSERT, uniform ? first.getChannel() : null,
+            uniform ? first.getType() : null, systemName, insertStart);
+
+        // Queue messages in the outbox, published to Kafka once this transaction commits
+        List<NotificationMessage> messages = new ArrayList<>(total);
+        List<PreparedBatch> unresolved = batches.stream().filter(batch -> batch.profile == null).toList();
+        if (!unresolved.isEmpty()) {
+            List<SenderProfileSnapshot> profiles = senderProfileService.resolveAll(apiKeyValue,
+                unresolved.stream().map(batch -> batch.request).toList());
+            for (int i = 0; i < unresolved.size(); i++) {
+                unresolved.get(i).profile = profiles.get(i);
+            }
+        }
+        int offset = 0;
+        for (PreparedBatch batch : batches) {
+            SenderProfileSnapshot profile = batch.profile;
+            for (NotificationLog savedLog : notificationLogs.subList(offset, offset + batch.recipients.size())) {
+                batch.savedLogIds.add(savedLog.getId());
+                messages.add(buildNotificationMessage(
+                    savedLog, apiKeyValue, systemName, batch.request, profile, savedLog.getRecipient(), batch.batchId));
+            }
+            offset += batch.recipients.size();
+        }
+        outboxService.enqueue(messages);
+    }
+
+    /**
+     * Reserves quota and writes one chunk of campaign recipients in its own transaction, so
+     * a large upload never holds a transaction or more than one chunk in memory.
+     */
+    private int writeCampaignChunk(ApiKeySnapshot apiKey, SendNotificationRequest header,
+                                   String batchId, List<String> recipients) {
+        transactionTemplate.executeWithoutResult(status -> {
+            apiKeyService.recordUsage(apiKey, recipients.size());
+            createBatch(apiKey.getApiKeyValue(), apiKey.getSystemName(), header, recipients, batchId, null);
+        });
+        return recipients.size();
+    }
+
+    private void validateCampaignHeader(SendNotificationRequest header) {
+        if (header.getChannel() == null || header.getType() == null) {
+            throw new ValidationException("Campaign header requires channel and type");
+        }
+        if (header.getChannel() == NotificationChannel.TELEGRAM) {
+            if (header.getTelegram() == null || header.getTelegram().getBotToken() == null
+                    || header.getTelegram().getBotToken().isBlank()) {
+                throw new ValidationException("Telegram bot token is required");
+            }
+        } else if (header.getChannel() == NotificationChannel.EMAIL) {
+            EmailConfig email = header.getEmail();
+            if (email == null || email.getFrom() == null || email.getSmtpHost() == null
+                    || email.getSmtpUsername() == null || email.getSmtpPassword() == null) {
+                throw new ValidationException("Email from address and SMTP settings are required");
+            }
+        }
+    }
+
+    /**
+     * The first line of a campaign body is the JSON header: a send request without
+     * recipients. For NDJSON every following value is a recipient, either a JSON string or an
+     * object with a "recipient" field. For CSV every following line holds the recipient in its
+     * first column; a "recipient" header row is skipped.
+     */
+    private RecipientReader openCampaignReader(InputStream body, CampaignFormat format) throws IOException {
+        if (format == CampaignFormat.CSV) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new ValidationException("Campaign body is empty");
+            }
+            SendNotificationRequest header = objectMapper.readValue(headerLine, SendNotificationRequest.class);
+            return new RecipientReader() {
+                @Override
+                public SendNotificationRequest header() {
+                    return header;
+                }
+
+                @Override
+                public String next() throws IOException {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int comma = line.indexOf(',');
+                        String recipient = (comma >= 0 ? line.substring(0, comma) : line).trim();
+                        if (recipient.length() >= 2 && recipient.startsWith("\"") && recipient.endsWith("\"")) {
+                            recipient = recipient.substring(1, recipient.length() - 1);
+                        }
+                        if (!"recipient".equalsIgnoreCase(recipient)) {
+                            return recipient;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new JsonParseException(parser, "Campaign body must start with a JSON header object");
+        }
+        SendNotificationRequest header = objectMapper.readValue(parser, SendNotificationRequest.class);
+        return new RecipientReader() {
+            @Override
+            public SendNotificationRequest header() {
+                return header;
+            }
+
+            @Override
+            public String next() throws IOException {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == JsonToken.VALUE_STRING) {
+                        return parser.getText();
+                    }
+                    if (token == JsonToken.START_OBJECT) {
+                        JsonNode node = parser.readValueAsTree();
+                        return node.path("recipient").asText("");
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+
+    private List<String> validateBulkItem(ApiKeySnapshot apiKey, SendNotificationRequest item) {
+        if (item == null) {
+            throw new ValidationException("Item is required");
+        }
+
+        Set<ConstraintViolation<SendNotificationRequest>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+        }
+
+        templateService.applyTemplate(apiKey.getApiKeyValue(), item);
+        List<String> recipients = validateAndGetRecipients(item);
+        if (recipients.size() > maxRecipients) {
+            throw new ValidationException("Maximum " + maxRecipients + " recipients per item");
+        }
+        return recipients;
+    }
+
     private List<String> validateAndGetRecipients(SendNotificationRequest request) {
         if (request.getChannel() == NotificationChannel.TELEGRAM) {
             if (request.getTelegram() == null) {
@@ -156,13 +576,45 @@ public class NotificationServiceImpl implements NotificationService {
         throw new ValidationException("Unsupported notification channel");
     }
 
+    private static List<String> recipientsOf(SendNotificationRequest request) {
+        return request.getChannel() == NotificationChannel.TELEGRAM
+            ? request.getTelegram().getChatIds()
+            : request.getEmail().getTo();
+    }
+
+    /**
+     * Copy of the request as written to the ingest journal: recipients and content only,
+     * since the credentials are already held by the resolved sender profile.
+     */
+    private static SendNotificationRequest withoutCredentials(SendNotificationRequest request) {
+        SendNotificationRequest copy = new SendNotificationRequest();
+        copy.setChannel(request.getChannel());
+        copy.setType(request.getType());
+        copy.setPriority(request.getPriority());
+        copy.setSubject(request.getSubject());
+        copy.setMessage(request.getMessage());
+        copy.setTemplateId(request.getTemplateId());
+        copy.setVariables(request.getVariables());
+        if (request.getTelegram() != null) {
+            TelegramConfig telegram = new TelegramConfig();
+            telegram.setChatIds(request.getTelegram().getChatIds());
+            copy.setTelegram(telegram);
+        }
+        if (request.getEmail() != null) {
+            EmailConfig email = new EmailConfig();
+            email.setTo(request.getEmail().getTo());
+            copy.setEmail(email);
+        }
+        return copy;
+    }
+
     private NotificationLog createNotificationLog(
-            ApiKey apiKey, SendNotificationRequest request, String recipient, String batchId) {
+            String apiKeyValue, String systemName, SendNotificationRequest request, String recipient, String batchId) {
         
         NotificationLog notificationLog = new NotificationLog();
         notificationLog.setBatchId(batchId);
-        notificationLog.setApiKeyValue(apiKey.getApiKeyValue());
-        notificationLog.setSystemName(apiKey.getSystemName());
+        notificationLog.setApiKeyValue(apiKeyValue);
+        notificationLog.setSystemName(systemName);
         notificationLog.setChannel(request.getChannel());
         notificationLog.setType(request.getType());
         notificationLog.setStatus(NotificationStatus.PENDING);
@@ -174,33 +626,48 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     private NotificationMessage buildNotificationMessage(
-            NotificationLog notificationLog, ApiKey apiKey, SendNotificationRequest request, 
-            String recipient, String batchId) {
-        
-        NotificationMessage.NotificationMessageBuilder builder = NotificationMessage.builder()
+            NotificationLog notificationLog, String apiKeyValue, String systemName,
+            SendNotificationRequest request, SenderProfileSnapshot profile, String recipient, String batchId) {
+
+        return NotificationMessage.builder()
             .logId(notificationLog.getId())
             .batchId(batchId)
-            .apiKeyValue(apiKey.getApiKeyValue())
-            .systemName(apiKey.getSystemName())
+            .apiKeyValue(apiKeyValue)
+            .systemName(systemName)
             .channel(request.getChannel())
             .type(request.getType())
+            .priority(request.getPriority() != null ? request.getPriority() : NotificationPriority.of(request.getType()))
             .recipient(recipient)
             .subject(request.getSubject())
             .message(request.getMessage())
-            .retryCount(0);
+            .retryCount(0)
+            .senderProfileId(profile.getId())
+            .senderProfileVersion(profile.getProfileVersion())
+            .build();
+    }
 
-        if (request.getChannel() == NotificationChannel.TELEGRAM) {
-            builder.telegramBotToken(request.getTelegram().getBotToken());
-        } else if (request.getChannel() == NotificationChannel.EMAIL) {
-            builder.emailFrom(request.getEmail().getFrom())
-                   .emailSmtpHost(request.getEmail().getSmtpHost())
-                   .emailSmtpPort(request.getEmail().getSmtpPort())
-                   .emailSmtpUsername(request.getEmail().getSmtpUsername())
-                   .emailSmtpPassword(request.getEmail().getSmtpPassword())
-                   .emailUseSSL(request.getEmail().getUseSSL())
-                   .emailUseTLS(request.getEmail().getUseTLS());
+    private static final class PreparedBatch {
+        private final SendNotificationRequest request;
+        private final List<String> recipients;
+        private final String batchId;
+        private final List<UUID> logIds;
+        private final List<UUID> savedLogIds = new ArrayList<>();
+        private SenderProfileSnapshot profile;
+        private BulkSendNotificationResponse.ItemResult result;
+
+        private PreparedBatch(SendNotificationRequest request, List<String> recipients,
+                              String batchId, List<UUID> logIds) {
+            this.request = request;
+            this.recipients = recipients;
+            this.batchId = batchId;
+            this.logIds = logIds;
         }
+    }
+
+    private interface RecipientReader extends Closeable {
+
+        SendNotificationRequest header();
 
-        return builder.build();
+        String next() throws IOException;
     }
-}
\ No newline at end of file
+}
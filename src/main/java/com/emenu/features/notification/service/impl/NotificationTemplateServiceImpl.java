@@ -0,0 +1,216 @@
+package com.emenu.features.notification.service.impl;
+
+import com.emenu.exception.custom.AlreadyExistsException;
+import com.emenu.exception.custom.NotFoundException;
+import com.emenu.exception.custom.ValidationException;
+import com.emenu.features.notification.dto.request.CreateTemplateRequest;
+import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.dto.request.UpdateTemplateRequest;
+import com.emenu.features.notification.dto.response.TemplateResponse;
+import com.emenu.features.notification.mapper.NotificationTemplateMapper;
+import com.emenu.features.notification.models.NotificationTemplate;
+import com.emenu.features.notification.repository.NotificationTemplateRepository;
+import com.emenu.features.notification.service.ApiKeyService;
+import com.emenu.features.notification.service.NotificationTemplateService;
+import com.emenu.features.notification.template.TemplatePlan;
+import com.emenu.features.notification.template.TemplateRenderer;
+import com.emenu.shared.dto.PaginationResponse;
+import com.emenu.shared.pagination.PaginationUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@Transactional
+public class NotificationTemplateServiceImpl implements NotificationTemplateService {
+
+    private final NotificationTemplateRepository templateRepository;
+    private final NotificationTemplateMapper templateMapper;
+    private final ApiKeyService apiKeyService;
+    private final TemplateRenderer templateRenderer;
+    private final Cache<PlanKey, CompiledTemplate> compiledTemplates;
+
+    public NotificationTemplateServiceImpl(NotificationTemplateRepository templateRepository,
+                                           NotificationTemplateMapper templateMapper,
+                                           ApiKeyService apiKeyService,
+                                           TemplateRenderer templateRenderer,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${notification.template.cache-max-size:10000}") long cacheMaxSize,
+                                           @Value("${notification.template.cache-ttl-minutes:10}") long cacheTtlMinutes) {
+        this.templateRepository = templateRepository;
+        this.templateMapper = templateMapper;
+        this.apiKeyService = apiKeyService;
+        this.templateRenderer = templateRenderer;
+        this.compiledTemplates = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compiledTemplates, "notificationTemplates");
+    }
+
+    @Override
+    public TemplateResponse createTemplate(String apiKey, CreateTemplateRequest request) {
+        String apiKeyValue = apiKeyService.validateApiKey(apiKey).getApiKeyValue();
+
+        if (templateRepository.existsByApiKeyValueAndNameAndIsDeletedFalse(apiKeyValue, request.getName())) {
+            throw new AlreadyExistsException("Template '" + request.getName() + "' already exists");
+        }
+
+        // Fail fast on syntax errors
+        TemplatePlan.compile(request.getBody());
+        if (request.getSubject() != null) {
+            TemplatePlan.compile(request.getSubject());
+        }
+
+        NotificationTemplate template = templateMapper.toEntity(request);
+        template.setApiKeyValue(apiKeyValue);
+        template.setTemplateVersion(1);
+        template.setIsActive(true);
+
+        NotificationTemplate saved = templateRepository.save(template);
+        log.info("Template created: {} ({})", saved.getName(), saved.getId());
+        return toResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginationResponse<TemplateResponse> getTemplates(String apiKey, Integer pageNo, Integer pageSize) {
+        String apiKeyValue = apiKeyService.validateApiKey(apiKey).getApiKeyValue();
+        Pageable pageable = PaginationUtils.createPageable(pageNo, pageSize, "createdAt", "DESC");
+        Page<NotificationTemplate> templates = templateRepository.findByApiKeyValueAndIsDeletedFalse(apiKeyValue, pageable);
+        return templateMapper.toPaginationResponse(templates);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TemplateResponse getTemplateById(String apiKey, UUID id) {
+        return toResponse(findTemplate(apiKey, id));
+    }
+
+    @Override
+    public TemplateResponse updateTemplate(String apiKey, UUID id, UpdateTemplateRequest request) {
+        NotificationTemplate template = findTemplate(apiKey, id);
+        boolean contentChanged = false;
+
+        if (request.getName() != null && !request.getName().equals(template.getName())) {
+            if (templateRepository.existsByApiKeyValueAndNameAndIsDeletedFalse(template.getApiKeyValue(), request.getName())) {
+                throw new AlreadyExistsException("Template '" + request.getName() + "' already exists");
+            }
+            template.setName(request.getName());
+        }
+        if (request.getSubject() != null) {
+            TemplatePlan.compile(request.getSubject());
+            template.setSubject(request.getSubject());
+            contentChanged = true;
+        }
+        if (request.getBody() != null) {
+            TemplatePlan.compile(request.getBody());
+            template.setBody(request.getBody());
+            contentChanged = true;
+        }
+        if (request.getIsActive() != null) {
+            template.setIsActive(request.getIsActive());
+        }
+        if (contentChanged) {
+            template.setTemplateVersion(template.getTemplateVersion() + 1);
+        }
+
+        NotificationTemplate saved = templateRepository.save(template);
+        log.info("Template updated: {} (version {})", saved.getName(), saved.getTemplateVersion());
+        return toResponse(saved);
+    }
+
+    @Override
+    public void deleteTemplate(String apiKey, UUID id) {
+        NotificationTemplate template = findTemplate(apiKey, id);
+        template.setIsDeleted(true);
+        templateRepository.save(template);
+        log.info("Template deleted: {}", id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void applyTemplate(String apiKeyValue, SendNotificationRequest request) {
+        if (request.getTemplateId() == null) {
+            if (request.getMessage() == null || request.getMessage().isBlank()) {
+                throw new ValidationException("Message or templateId is required");
+            }
+            return;
+        }
+
+        // The header is read on every send so updates made on any instance apply immediately;
+        // only the compiled plans are cached, under the version they were compiled from
+        NotificationTemplateRepository.TemplateHeader header = templateRepository
+                .findHeaderByIdAndIsDeletedFalse(request.getTemplateId())
+                .filter(h -> h.getApiKeyValue().equals(apiKeyValue))
+                .orElseThrow(() -> new NotFoundException("Template not found"));
+        if (!Boolean.TRUE.equals(header.getIsActive())) {
+            throw new ValidationException("Template is inactive");
+        }
+        if (header.getChannel() != request.getChannel()) {
+            throw new ValidationException("Template is for channel " + header.getChannel());
+        }
+
+        CompiledTemplate template = compiledTemplates.get(
+                new PlanKey(request.getTemplateId(), header.getTemplateVersion()), this::compile);
+        if (template == null) {
+            throw new NotFoundException("Template not found");
+        }
+
+        Map<String, String> variables = request.getVariables() != null ? request.getVariables() : Map.of();
+        request.setMessage(templateRenderer.render(template.body(), variables));
+        if (template.subject() != null && request.getSubject() == null) {
+            // Plain text: it becomes the mail Subject header, and the layouts escape it in bodies
+            request.setSubject(templateRenderer.renderPlain(template.subject(), variables));
+        }
+    }
+
+    // ===== HELPER METHODS =====
+
+    private NotificationTemplate findTemplate(String apiKey, UUID id) {
+        String apiKeyValue = apiKeyService.validateApiKey(apiKey).getApiKeyValue();
+        return templateRepository.findByIdAndApiKeyValueAndIsDeletedFalse(id, apiKeyValue)
+                .orElseThrow(() -> new NotFoundException("Template not found"));
+    }
+
+    private CompiledTemplate compile(PlanKey key) {
+        return templateRepository.findById(key.id())
+                .filter(template -> !Boolean.TRUE.equals(template.getIsDeleted()))
+                .map(template -> new CompiledTemplate(
+                        template.getSubject() != null ? TemplatePlan.compile(template.getSubject()) : null,
+                        TemplatePlan.compile(template.getBody())))
+                .orElse(null);
+    }
+
+    private TemplateResponse toResponse(NotificationTemplate template) {
+        TemplateResponse response = templateMapper.toResponse(template);
+        Set<String> variables = new LinkedHashSet<>();
+        if (template.getSubject() != null) {
+            variables.addAll(TemplatePlan.compile(template.getSubject()).getVariables());
+        }
+        variables.addAll(TemplatePlan.compile(template.getBody()).getVariables());
+        response.setVariables(variables);
+        return response;
+    }
+
+    private record PlanKey(UUID id, Integer version) {
+    }
+
+    private record CompiledTemplate(TemplatePlan subject, TemplatePlan body) {
+    }
+}
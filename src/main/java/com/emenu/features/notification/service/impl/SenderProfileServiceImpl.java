@@ -0,0 +1,183 @@
+package com.emenu.features.notification.service.impl;
+
+import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
+import com.emenu.features.notification.dto.request.EmailConfig;
+import com.emenu.features.notification.dto.request.SendNotificationRequest;
+import com.emenu.features.notification.models.SystemNotificationSettings;
+import com.emenu.features.notification.repository.SenderProfileRepository;
+import com.emenu.features.notification.service.SenderProfileService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Profiles are written with one upsert keyed by profile key. Resolved profiles are cached by
+ * profile key together with their fingerprint, so repeat sends with unchanged credentials
+ * never touch the table; an entry is only cached once the transaction that wrote it commits.
+ * Entries expire after the cache TTL even while in use, so the upsert refreshes the last use
+ * of every active profile at least that often and only unused profiles are retired.
+ */
+@Service
+@Slf4j
+public class SenderProfileServiceImpl implements SenderProfileService {
+
+    private static final String SYSTEM_KEY_PREFIX = "system:";
+
+    private final SenderProfileRepository profileRepository;
+    private final Cache<String, SenderProfileSnapshot> profiles;
+    private final long retentionDays;
+
+    public SenderProfileServiceImpl(SenderProfileRepository profileRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${notification.sender-profile.cache-max-size:10000}") long cacheMaxSize,
+                                    @Value("${notification.sender-profile.cache-ttl-minutes:60}") long cacheTtlMinutes,
+                                    @Value("${notification.sender-profile.retention-days:7}") long retentionDays) {
+        this.profileRepository = profileRepository;
+        this.retentionDays = retentionDays;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "senderProfiles");
+    }
+
+    @Override
+    @Transactional
+    public List<SenderProfileSnapshot> resolveAll(String apiKeyValue, List<SendNotificationRequest> requests) {
+        Map<String, SenderProfileSnapshot> byProfileKey = new HashMap<>();
+        List<SenderProfileSnapshot> resolved = new ArrayList<>(requests.size());
+        for (SendNotificationRequest request : requests) {
+            SenderProfileSnapshot credentials = credentialsOf(request);
+            String profileKey = apiKeyValue + ":" + credentials.getChannel() + ":" + credentials.getFingerprint();
+            resolved.add(byProfileKey.computeIfAbsent(profileKey, key -> resolve(key, credentials)));
+        }
+        return resolved;
+    }
+
+    @Override
+    @Transactional
+    public SenderProfileSnapshot resolveSystem(SystemNotificationSettings settings, NotificationChannel channel) {
+        SenderProfileSnapshot credentials = credentialsOf(settings, channel);
+        return resolve(SYSTEM_KEY_PREFIX + settings.getSettingKey() + ":" + channel, credentials);
+    }
+
+    @Override
+    @Transactional
+    public int retireUnused() {
+        return profileRepository.deleteUnusedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    // ===== HELPER METHODS =====
+
+    private SenderProfileSnapshot resolve(String profileKey, SenderProfileSnapshot credentials) {
+        SenderProfileSnapshot cached = profiles.getIfPresent(profileKey);
+        if (cached != null && cached.getFingerprint().equals(credentials.getFingerprint())) {
+            return cached;
+        }
+
+        profileRepository.upsert(UUID.randomUUID(), profileKey, credentials.getChannel().name(),
+                credentials.getFingerprint(), credentials.getTelegramBotToken(), credentials.getEmailFrom(),
+                credentials.getEmailSmtpHost(), credentials.getEmailSmtpPort(), credentials.getEmailSmtpUsername(),
+                credentials.getEmailSmtpPassword(), credentials.isEmailUseSSL(), credentials.isEmailUseTLS(),
+                LocalDateTime.now());
+
+        SenderProfileSnapshot profile = profileRepository.findByProfileKey(profileKey)
+                .map(SenderProfileSnapshot::from)
+                .orElseThrow(() -> new IllegalStateException("Sender profile missing after upsert: " + profileKey));
+        log.debug("Resolved sender profile {} version {}", profile.getId(), profile.getProfileVersion());
+
+        cacheAfterCommit(profileKey, profile);
+        return profile;
+    }
+
+    private void cacheAfterCommit(String profileKey, SenderProfileSnapshot profile) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    profiles.put(profileKey, profile);
+                }
+            });
+        } else {
+            profiles.put(profileKey, profile);
+        }
+    }
+
+    private SenderProfileSnapshot credentialsOf(SendNotificationRequest request) {
+        SenderProfileSnapshot.SenderProfileSnapshotBuilder builder = SenderProfileSnapshot.builder()
+                .channel(request.getChannel());
+        if (request.getChannel() == NotificationChannel.TELEGRAM) {
+            builder.telegramBotToken(request.getTelegram().getBotToken());
+        } else {
+            EmailConfig email = request.getEmail();
+            builder.emailFrom(email.getFrom())
+                   .emailSmtpHost(email.getSmtpHost())
+                   .emailSmtpPort(email.getSmtpPort())
+                   .emailSmtpUsername(email.getSmtpUsername())
+                   .emailSmtpPassword(email.getSmtpPassword())
+                   .emailUseSSL(Boolean.TRUE.equals(email.getUseSSL()))
+                   .emailUseTLS(Boolean.TRUE.equals(email.getUseTLS()));
+        }
+        return withFingerprint(builder);
+    }
+
+    private SenderProfileSnapshot credentialsOf(SystemNotificationSettings settings, NotificationChannel channel) {
+        SenderProfileSnapshot.SenderProfileSnapshotBuilder builder = SenderProfileSnapshot.builder()
+                .channel(channel);
+        if (channel == NotificationChannel.TELEGRAM) {
+            builder.telegramBotToken(settings.getTelegramBotToken());
+        } else {
+            builder.emailFrom(settings.getEmailFrom())
+                   .emailSmtpHost(settings.getEmailSmtpHost())
+                   .emailSmtpPort(settings.getEmailSmtpPort())
+                   .emailSmtpUsername(settings.getEmailSmtpUsername())
+                   .emailSmtpPassword(settings.getEmailSmtpPassword())
+                   .emailUseSSL(Boolean.TRUE.equals(settings.getEmailUseSSL()))
+                   .emailUseTLS(Boolean.TRUE.equals(settings.getEmailUseTLS()));
+        }
+        return withFingerprint(builder);
+    }
+
+    private SenderProfileSnapshot withFingerprint(SenderProfileSnapshot.SenderProfileSnapshotBuilder builder) {
+        SenderProfileSnapshot credentials = builder.build();
+        return builder.fingerprint(fingerprint(credentials)).build();
+    }
+
+    private String fingerprint(SenderProfileSnapshot credentials) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object field : new Object[] {
+                    credentials.getChannel(), credentials.getTelegramBotToken(), credentials.getEmailFrom(),
+                    credentials.getEmailSmtpHost(), credentials.getEmailSmtpPort(), credentials.getEmailSmtpUsername(),
+                    credentials.getEmailSmtpPassword(), credentials.isEmailUseSSL(), credentials.isEmailUseTLS()}) {
+                // Field separator that cannot occur in the values, with a distinct marker for null
+                digest.update(field == null ? new byte[] {1} : String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,22 +1,24 @@
 package com.emenu.features.notification.service.impl;
 
 import com.emenu.enums.notification.NotificationChannel;
+import com.emenu.enums.notification.NotificationPriority;
 import com.emenu.enums.notification.NotificationStatus;
 import com.emenu.exception.custom.ValidationException;
+import com.emenu.features.notification.dto.ApiKeySnapshot;
 import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
 import com.emenu.features.notification.dto.request.SystemSendNotificationRequest;
 import com.emenu.features.notification.dto.request.UpdateSystemSettingsRequest;
 import com.emenu.features.notification.dto.response.SystemSendNotificationResponse;
 import com.emenu.features.notification.dto.response.SystemSettingsResponse;
-import com.emenu.features.notification.kafka.NotificationProducer;
 import com.emenu.features.notification.mapper.SystemSettingsMapper;
-import com.emenu.features.notification.models.ApiKey;
 import com.emenu.features.notification.models.NotificationLog;
 import com.emenu.features.notification.models.SystemNotificationSettings;
-import com.emenu.features.notification.repository.ApiKeyRepository;
 import com.emenu.features.notification.repository.NotificationLogRepository;
 import com.emenu.features.notification.repository.SystemNotificationSettingsRepository;
 import com.emenu.features.notification.service.ApiKeyService;
+import com.emenu.features.notification.service.NotificationOutboxService;
+import com.emenu.features.notification.service.SenderProfileService;
 import com.emenu.features.notification.service.SystemNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,9 +36,9 @@ public class SystemNotificationServiceImpl implements SystemNotificationService
 
     private final SystemNotificationSettingsRepository settingsRepository;
     private final NotificationLogRepository logRepository;
-    private final ApiKeyRepository apiKeyRepository;
     private final ApiKeyService apiKeyService;
-    private final NotificationProducer notificationProducer;
+    private final NotificationOutboxService outboxService;
+    private final SenderProfileService senderProfileService;
     private final SystemSettingsMapper settingsMapper;
 
     private static final String DEFAULT_SETTING_KEY = "DEFAULT";
@@ -101,7 +103,7 @@ public class SystemNotificationServiceImpl implements SystemNotificationService
         log.info("Sending system notification - Channel: {}, Type: {}", request.getChannel(), request.getType());
 
         // Validate API Key
-        ApiKey apiKey = apiKeyService.validateApiKey(apiKeyValue);
+        ApiKeySnapshot apiKey = apiKeyService.validateApiKey(apiKeyValue);
 
         // Get system settings
         SystemNotificationSettings settings = getOrCreateSettings();
@@ -116,31 +118,31 @@ public class SystemNotificationServiceImpl implements SystemNotificationService
             throw new ValidationException("At least one recipient is required");
         }
 
+        // Reserve usage for every recipient; fails if the monthly limit would be exceeded
+        apiKeyService.recordUsage(apiKey, recipients.size());
+
         // Generate batch ID
         String batchId = UUID.randomUUID().toString();
         List<UUID> logIds = new ArrayList<>();
 
-        // Create logs and send to Kafka for each recipient
+        // Create all logs in one batched insert
+        List<NotificationLog> notificationLogs = new ArrayList<>(recipients.size());
         for (String recipient : recipients) {
-            NotificationLog notificationLog = createSystemNotificationLog(apiKey, request, recipient, batchId);
-            NotificationLog savedLog = logRepository.save(notificationLog);
+            notificationLogs.add(createSystemNotificationLog(apiKey, request, recipient, batchId));
+        }
+        logRepository.insertAll(notificationLogs);
+
+        // Queue messages in the outbox, published to Kafka once this transaction commits
+        SenderProfileSnapshot profile = senderProfileService.resolveSystem(settings, request.getChannel());
+        List<NotificationMessage> messages = new ArrayList<>(notificationLogs.size());
+        for (NotificationLog savedLog : notificationLogs) {
             logIds.add(savedLog.getId());
 
             // Build message for Kafka
-            NotificationMessage message = buildSystemNotificationMessage(savedLog, settings, request, recipient);
-
-            // Send to Kafka
-            if (request.getChannel() == NotificationChannel.TELEGRAM) {
-                notificationProducer.sendTelegramNotification(message);
-            } else if (request.getChannel() == NotificationChannel.EMAIL) {
-                notificationProducer.sendEmailNotification(message);
-            }
-
-            // Increment API Key usage
-            apiKey.incrementUsage();
+            NotificationMessage message = buildSystemNotificationMessage(savedLog, profile, request, savedLog.getRecipient());
+            messages.add(message);
         }
-
-        apiKeyRepository.save(apiKey);
+        outboxService.enqueue(messages);
 
         log.info("System notification batch queued - Batch: {}, Recipients: {}", batchId, recipients.size());
 
@@ -199,7 +201,7 @@ public class SystemNotificationServiceImpl implements SystemNotificationService
     }
 
     private NotificationLog createSystemNotificationLog(
-            ApiKey apiKey, SystemSendNotificationRequest request, String recipient, String batchId) {
+            ApiKeySnapshot apiKey, SystemSendNotificationRequest request, String recipient, String batchId) {
 
         NotificationLog notificationLog = new NotificationLog();
         notificationLog.setBatchId(batchId);
@@ -217,33 +219,23 @@ public class SystemNotificationServiceImpl implements SystemNotificationService
     }
 
     private NotificationMessage buildSystemNotificationMessage(
-            NotificationLog notificationLog, SystemNotificationSettings settings, 
+            NotificationLog notificationLog, SenderProfileSnapshot profile,
             SystemSendNotificationRequest request, String recipient) {
 
-        NotificationMessage.NotificationMessageBuilder builder = NotificationMessage.builder()
+        return NotificationMessage.builder()
             .logId(notificationLog.getId())
             .batchId(notificationLog.getBatchId())
             .apiKeyValue(notificationLog.getApiKeyValue())
             .systemName(notificationLog.getSystemName())
             .channel(request.getChannel())
             .type(request.getType())
+            .priority(NotificationPriority.of(request.getType()))
             .recipient(recipient)
             .subject(request.getSubject())
             .message(request.getMessage())
-            .retryCount(0);
-
-        if (request.getChannel() == NotificationChannel.TELEGRAM) {
-            builder.telegramBotToken(settings.getTelegramBotToken());
-        } else if (request.getChannel() == NotificationChannel.EMAIL) {
-            builder.emailFrom(settings.getEmailFrom())
-                   .emailSmtpHost(settings.getEmailSmtpHost())
-                   .emailSmtpPort(settings.getEmailSmtpPort())
-                   .emailSmtpUsername(settings.getEmailSmtpUsername())
-                   .emailSmtpPassword(settings.getEmailSmtpPassword())
-                   .emailUseSSL(settings.getEmailUseSSL())
-                   .emailUseTLS(settings.getEmailUseTLS());
-        }
-
-        return builder.build();
+            .retryCount(0)
+            .senderProfileId(profile.getId())
+            .senderProfileVersion(profile.getProfileVersion())
+            .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.emenu.features.notification.service.impl;
+
+import com.emenu.features.notification.cache.SenderProfileCache;
+import com.emenu.features.notification.delivery.TelegramRateLimiter;
+import com.emenu.features.notification.dto.DeliveryResult;
+import com.emenu.features.notification.dto.NotificationMessage;
+import com.emenu.features.notification.dto.SenderProfileSnapshot;
+import com.emenu.features.notification.metrics.NotificationMetrics;
+import com.emenu.features.notification.service.TelegramSender;
+import com.emenu.features.notification.template.TemplateRenderer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class TelegramSenderImpl implements TelegramSender {
+
+    private final WebClient telegramWebClient;
+    private final TelegramRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final TemplateRenderer templateRenderer;
+    private final SenderProfileCache profileCache;
+    private final NotificationMetrics metrics;
+
+    @Value("${notification.telegram.api-url}")
+    private String telegramApiUrl;
+
+    @Value("${notification.telegram.timeout:5000}")
+    private int timeout;
+
+    @Value("${notification.telegram.rate-limit.max-retry-after-attempts:3}")
+    private int maxRetryAfterAttempts;
+
+    public TelegramSenderImpl(@Qualifier("telegramWebClient") WebClient telegramWebClient,
+                              TelegramRateLimiter rateLimiter,
+                              ObjectMapper objectMapper,
+                              TemplateRenderer templateRenderer,
+                              SenderProfileCache profileCache,
+                              NotificationMetrics metrics) {
+        this.telegramWebClient = telegramWebClient;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.templateRenderer = templateRenderer;
+        this.profileCache = profileCache;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<DeliveryResult> send(NotificationMessage message, long deadline) {
+        return Mono.defer(() -> {
+                SenderProfileSnapshot profile = profileCache.get(message);
+                if (profile == null) {
+                    return Mono.just(DeliveryResult.failedPermanently(message.getLogId(), "Sender profile not found"));
+                }
+                return send(message, profile.getTelegramBotToken(), templateRenderer.renderTelegram(message), 0, deadline);
+            })
+            .onErrorResume(e -> {
+                log.error("Failed to send Telegram: {}", e.getMessage());
+                return Mono.just(DeliveryResult.failed(message.getLogId(), e.getMessage()));
+            });
+    }
+
+    private Mono<DeliveryResult> send(NotificationMessage message, String botToken, String text, int attempt, long deadline) {
+        String chatId = message.getRecipient();
+
+        return rateLimiter.acquire(botToken, chatId, deadline)
+            .flatMap(allowed -> allowed
+                ? timedPost(message, botToken, text)
+                    .flatMap(response -> handleResponse(message, botToken, text, attempt, deadline, response))
+                : Mono.just(DeliveryResult.failed(message.getLogId(), "Rate limit wait exceeds the batch wait cap")));
+    }
+
+    private Mono<DeliveryResult> handleResponse(NotificationMessage message, String botToken, String text, int attempt,
+                                                long deadline, ResponseEntity<String> response) {
+        String chatId = message.getRecipient();
+        if (response.getStatusCode().is2xxSuccessful()) {
+            log.info("Telegram message sent - Chat: {}, Batch: {}", chatId, message.getBatchId());
+            return Mono.just(DeliveryResult.sent(message.getLogId(), response.getBody()));
+        }
+
+        if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            long retryAfter = parseRetryAfter(response.getBody());
+            rateLimiter.pause(botToken, chatId, retryAfter);
+            // Past the cap the message goes to its retry tier instead of holding the batch
+            if (attempt < maxRetryAfterAttempts
+                    && System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter) <= deadline) {
+                return send(message, botToken, text, attempt + 1, deadline);
+            }
+        }
+
+        int status = response.getStatusCode().value();
+        log.error("Telegram API error {} - Chat: {}: {}", status, chatId, response.getBody());
+        String error = "Telegram API error " + status + ": " + response.getBody();
+        // 4xx other than 429 means a bad token, chat or payload; resending will not help
+        return Mono.just(response.getStatusCode().is4xxClientError() && status != HttpStatus.TOO_MANY_REQUESTS.value()
+            ? DeliveryResult.failedPermanently(message.getLogId(), error)
+            : DeliveryResult.failed(message.getLogId(), error));
+    }
+
+    private Mono<ResponseEntity<String>> timedPost(NotificationMessage message, String botToken, String text) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return post(botToken, message.getRecipient(), text)
+                .doFinally(signal -> metrics.record(NotificationMetrics.Stage.PROVIDER_CALL, message, start));
+        });
+    }
+
+    private Mono<ResponseEntity<String>> post(String botToken, String chatId, String text) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("chat_id", chatId);
+        requestBody.put("text", text);
+        requestBody.put("parse_mode", "HTML");
+
+        return telegramWebClient.post()
+            .uri(URI.create(telegramApiUrl + botToken + "/sendMessage"))
+            .bodyValue(requestBody)
+            .exchangeToMono(response -> response.toEntity(String.class))
+            .timeout(Duration.ofMillis(timeout));
+    }
+
+    private long parseRetryAfter(String body) {
+        try {
+            JsonNode retryAfter = objectMapper.readTree(body).path("parameters").path("retry_after");
+            if (retryAfter.canConvertToLong()) {
+                return Math.max(1, retryAfter.asLong());
+            }
+        } catch (Exception e) {
+            log.debug("Could not parse Telegram retry_after: {}", e.getMessage());
+        }
+        return 1;
+    }
+}
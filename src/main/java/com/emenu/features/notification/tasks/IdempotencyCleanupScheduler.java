@@ -0,0 +1,27 @@
+package com.emenu.features.notification.tasks;
+
+import com.emenu.features.notification.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyCleanupScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "0 15 * * * ?") // Every hour
+    public void cleanupExpiredRecords() {
+        try {
+            int deleted = idempotencyService.cleanupExpired();
+            if (deleted > 0) {
+                log.info("Cleaned up {} expired idempotency records", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error during idempotency cleanup: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.emenu.features.notification.tasks;
+
+import com.emenu.features.notification.service.NotificationOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxCleanupScheduler {
+
+    private final NotificationOutboxService outboxService;
+
+    @Scheduled(cron = "0 30 * * * ?") // Every hour
+    public void cleanupPublishedOutbox() {
+        try {
+            int deleted = outboxService.cleanupPublished();
+            if (deleted > 0) {
+                log.info("Cleaned up {} published outbox messages", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error during outbox cleanup: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.emenu.features.notification.tasks;
+
+import com.emenu.features.notification.service.SenderProfileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SenderProfileCleanupScheduler {
+
+    private final SenderProfileService senderProfileService;
+
+    @Scheduled(cron = "0 15 3 * * ?") // Daily at 03:15
+    public void retireUnusedProfiles() {
+        try {
+            int deleted = senderProfileService.retireUnused();
+            if (deleted > 0) {
+                log.info("Retired {} unused sender profiles", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error during sender profile cleanup: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.emenu.features.notification.template;
+
+import com.emenu.exception.custom.ValidationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A template parsed once into literal segments and variable slots.
+ * <ul>
+ *   <li>{@code {{name}}} inserts the variable HTML-escaped</li>
+ *   <li>{@code {{{name}}}} inserts it as-is</li>
+ *   <li>a {@code |nl2br} suffix on either form turns line breaks into {@code <br/>}</li>
+ * </ul>
+ * Missing variables render as empty strings. {@link #renderPlainTo} ignores escaping and
+ * filters, for text that is not HTML such as a mail subject.
+ */
+public final class TemplatePlan {
+
+    private static final String NL2BR = "nl2br";
+
+    private final Segment[] segments;
+    private final int literalLength;
+    private final Set<String> variables;
+
+    private TemplatePlan(List<Segment> segments) {
+        this.segments = segments.toArray(new Segment[0]);
+        int length = 0;
+        Set<String> names = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment.variable() == null) {
+                length += segment.literal().length();
+            } else {
+                names.add(segment.variable());
+            }
+        }
+        this.literalLength = length;
+        this.variables = Collections.unmodifiableSet(names);
+    }
+
+    public static TemplatePlan compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                segments.add(Segment.literal(source.substring(position)));
+                break;
+            }
+            if (open > position) {
+                segments.add(Segment.literal(source.substring(position, open)));
+            }
+
+            boolean raw = source.startsWith("{{{", open);
+            String closing = raw ? "}}}" : "}}";
+            int start = open + (raw ? 3 : 2);
+            int close = source.indexOf(closing, start);
+            if (close < 0) {
+                throw new ValidationException("Unclosed template placeholder at position " + open);
+            }
+
+            segments.add(slot(source.substring(start, close).trim(), !raw, open));
+            position = close + closing.length();
+        }
+        return new TemplatePlan(segments);
+    }
+
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Rough output size, used to pre-size buffers.
+     */
+    public int estimateLength(Map<String, String> values) {
+        int length = literalLength;
+        for (Segment segment : segments) {
+            if (segment.variable() != null) {
+                String value = values.get(segment.variable());
+                length += value != null ? value.length() : 0;
+            }
+        }
+        return length;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        render(out, values, false);
+    }
+
+    public void renderPlainTo(StringBuilder out, Map<String, String> values) {
+        render(out, values, true);
+    }
+
+    // ===== HELPER METHODS =====
+
+    private void render(StringBuilder out, Map<String, String> values, boolean plain) {
+        for (Segment segment : segments) {
+            if (segment.variable() == null) {
+                out.append(segment.literal());
+                continue;
+            }
+            String value = values.get(segment.variable());
+            if (value == null) {
+                continue;
+            }
+            if (plain) {
+                out.append(value);
+            } else if (segment.escape()) {
+                appendEscaped(out, value, segment.nl2br());
+            } else if (segment.nl2br()) {
+                appendWithBreaks(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private static Segment slot(String expression, boolean escape, int position) {
+        String[] parts = expression.split("\\|");
+        String name = parts[0].trim();
+        if (name.isEmpty()) {
+            throw new ValidationException("Empty template placeholder at position " + position);
+        }
+
+        boolean nl2br = false;
+        for (int i = 1; i < parts.length; i++) {
+            String filter = parts[i].trim();
+            if (!NL2BR.equals(filter)) {
+                throw new ValidationException("Unknown template filter '" + filter + "' at position " + position);
+            }
+            nl2br = true;
+        }
+        return new Segment(null, name, escape, nl2br);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value, boolean nl2br) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                case '\n' -> out.append(nl2br ? "<br/>" : "\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static void appendWithBreaks(StringBuilder out, String value) {
+        int start = 0;
+        int newline;
+        while ((newline = value.indexOf('\n', start)) >= 0) {
+            out.append(value, start, newline).append("<br/>");
+            start = newline + 1;
+        }
+        out.append(value, start, value.length());
+    }
+
+    private record Segment(String literal, String variable, boolean escape, boolean nl2br) {
+
+        static Segment literal(String text) {
+            return new Segment(text, null, false, false);
+        }
+    }
+}
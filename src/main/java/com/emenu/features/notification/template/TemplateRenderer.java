@@ -0,0 +1,101 @@
+package com.emenu.features.notification.template;
+
+import com.emenu.features.notification.dto.NotificationMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Renders compiled {@link TemplatePlan}s into per-thread reusable buffers. The built-in
+ * email and Telegram layouts are compiled once at class load.
+ */
+@Component
+public class TemplateRenderer {
+
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private static final TemplatePlan EMAIL_LAYOUT = TemplatePlan.compile("""
+        <html>
+        <body style="font-family: Arial, sans-serif;">
+            <div style="background-color: #f5f5f5; padding: 20px;">
+                <div style="background-color: white; padding: 20px; border-radius: 5px;">
+                    <h2 style="color: #333;">{{type}} - {{subject}}</h2>
+                    <hr style="border: 1px solid #eee;"/>
+                    <div style="margin: 20px 0;">
+                        {{{message|nl2br}}}
+                    </div>
+                    <hr style="border: 1px solid #eee;"/>
+                    <p style="color: #666; font-size: 12px; margin-top: 20px;">
+                        <i>Sent from: {{systemName}}</i>
+                    </p>
+                </div>
+            </div>
+        </body>
+        </html>
+        """);
+
+    private static final TemplatePlan TELEGRAM_LAYOUT = TemplatePlan.compile(
+        "<b>🔔 {{type}}</b>\n\n{{{message}}}\n\n<i>From: {{systemName}}</i>");
+
+    private static final TemplatePlan TELEGRAM_LAYOUT_WITH_SUBJECT = TemplatePlan.compile(
+        "<b>🔔 {{type}}</b>\n\n<b>{{subject}}</b>\n\n{{{message}}}\n\n<i>From: {{systemName}}</i>");
+
+    public String render(TemplatePlan plan, Map<String, String> values) {
+        return render(plan, values, false);
+    }
+
+    /**
+     * Renders without HTML escaping, for plain-text fields; the layouts escape them on output.
+     */
+    public String renderPlain(TemplatePlan plan, Map<String, String> values) {
+        return render(plan, values, true);
+    }
+
+    public String renderEmail(NotificationMessage message) {
+        Map<String, String> values = layoutValues(message);
+        values.put("subject", message.getSubject() != null ? message.getSubject() : "Notification");
+        return render(EMAIL_LAYOUT, values);
+    }
+
+    public String renderTelegram(NotificationMessage message) {
+        Map<String, String> values = layoutValues(message);
+        if (message.getSubject() == null) {
+            return render(TELEGRAM_LAYOUT, values);
+        }
+        values.put("subject", message.getSubject());
+        return render(TELEGRAM_LAYOUT_WITH_SUBJECT, values);
+    }
+
+    // ===== HELPER METHODS =====
+
+    private String render(TemplatePlan plan, Map<String, String> values, boolean plain) {
+        StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(plan.estimateLength(values));
+        try {
+            if (plain) {
+                plan.renderPlainTo(buffer, values);
+            } else {
+                plan.renderTo(buffer, values);
+            }
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+                BUFFERS.remove();
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    private static Map<String, String> layoutValues(NotificationMessage message) {
+        Map<String, String> values = new HashMap<>(8);
+        values.put("type", String.valueOf(message.getType()));
+        values.put("message", message.getMessage());
+        values.put("systemName", message.getSystemName());
+        return values;
+    }
+}
@@ -61,6 +61,8 @@ public class SecurityConfig {
 
                         // ===== ACTUATOR ENDPOINTS =====
                         .requestMatchers("/actuator/health/**").permitAll()
+                        // Per-tenant labels and volumes; scrape with a platform admin token
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics/**").hasAnyRole("PLATFORM_OWNER", "PLATFORM_ADMIN")
 
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
@@ -1,5 +1,6 @@
 package com.emenu.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -40,8 +41,9 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                if (jwtGenerator.validateToken(token)) {
-                    String username = jwtGenerator.getUsernameFromJWT(token);
+                Claims claims = jwtGenerator.parseToken(token);
+                if (claims != null) {
+                    String username = claims.getSubject();
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
                     UsernamePasswordAuthenticationToken authenticationToken =